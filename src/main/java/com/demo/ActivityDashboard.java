@@ -0,0 +1,268 @@
+package com.demo;
+
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 活动统计面板：每次久坐时长的时间序列和“星期×小时”热力图。
+ * 记录在后台线程中一次性读入基本类型数组，绘制时只取可见时间范围，
+ * 并用SeriesDownsampler降采样到画布宽度，直接画在Canvas上，任何时间范围下重绘都只处理几百个点。
+ * 热力图使用ActivityStatistics中按小时的统计桶，不再逐条换算记录。
+ */
+public class ActivityDashboard extends VBox {
+    private static final String[] RANGE_NAMES = {"近1个月", "近3个月", "近1年", "全部"};
+    private static final int[] RANGE_MONTHS = {1, 3, 12, 0};
+    private static final String[] WEEKDAY_NAMES = {"一", "二", "三", "四", "五", "六", "日"};
+    private static final Color LINE_COLOR = Color.web("#4a6fa5");
+    private static final Color AXIS_COLOR = Color.web("#adb5bd");
+    private static final Color TEXT_COLOR = Color.web("#6c757d");
+    private static final double PADDING = 36;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ChoiceBox<String> rangeChoice = new ChoiceBox<>();
+    private final Label summaryLabel = new Label();
+    private final Canvas seriesCanvas = new Canvas();
+    private final Canvas heatmapCanvas = new Canvas();
+
+    // 全部记录的开始时间（秒）和久坐时长（分钟），按开始时间升序，只在JavaFX线程中替换
+    private long[] times = new long[0];
+    private double[] minutes = new double[0];
+    private long[][] heatmap = new long[7][24]; // 可见范围内各星期各小时的久坐秒数
+    private ActivityStatistics statistics;
+    // 绘制折线时复用的坐标数组
+    private double[] pointsX = new double[0];
+    private double[] pointsY = new double[0];
+
+    public ActivityDashboard() {
+        setSpacing(15);
+        setStyle("-fx-padding: 20;");
+
+        Label title = new Label("久坐趋势");
+        title.getStyleClass().add("section-title");
+        rangeChoice.getItems().addAll(RANGE_NAMES);
+        rangeChoice.setValue(RANGE_NAMES[0]);
+        rangeChoice.valueProperty().addListener((observable, oldValue, newValue) -> {
+            updateHeatmap();
+            redraw();
+        });
+        HBox header = new HBox(15, title, rangeChoice, summaryLabel);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        Label heatmapTitle = new Label("一周久坐分布");
+        heatmapTitle.getStyleClass().add("section-title");
+
+        getChildren().addAll(header, wrap(seriesCanvas, 260), heatmapTitle, wrap(heatmapCanvas, 220));
+    }
+
+    /**
+     * 在后台重新读取记录和统计，完成后在JavaFX线程中重绘
+     */
+    public void refresh(Configuration config) {
+        ActivityStatistics stats = config.getStatistics();
+        LOADER.submit(() -> {
+            RecordColumns records = new RecordColumns();
+            try {
+                RecordCursor cursor = config.queryRecords(RecordQuery.all());
+                while (cursor.next()) {
+                    records.add(cursor.getStartEpochSecond(), cursor.getEndEpochSecond(), cursor.getFlags());
+                }
+            } catch (IOException e) {
+                System.err.println("读取提醒记录失败：" + e.getMessage());
+            }
+            int count = records.size();
+            long[] loadedTimes = new long[count];
+            double[] loadedMinutes = new double[count];
+            for (int i = 0; i < count; i++) {
+                loadedTimes[i] = records.getStartEpochSecond(i);
+                loadedMinutes[i] = (records.getEndEpochSecond(i) - loadedTimes[i]) / 60.0;
+            }
+            Platform.runLater(() -> {
+                times = loadedTimes;
+                minutes = loadedMinutes;
+                statistics = stats;
+                updateHeatmap();
+                redraw();
+            });
+        });
+    }
+
+    // 画布随容器大小变化，尺寸改变时重绘
+    private Pane wrap(Canvas canvas, double height) {
+        Pane pane = new Pane(canvas);
+        pane.getStyleClass().add("card");
+        pane.setPrefHeight(height);
+        pane.setMinHeight(height);
+        canvas.widthProperty().bind(pane.widthProperty());
+        canvas.heightProperty().bind(pane.heightProperty());
+        canvas.widthProperty().addListener((observable, oldValue, newValue) -> redraw());
+        canvas.heightProperty().addListener((observable, oldValue, newValue) -> redraw());
+        return pane;
+    }
+
+    // 可见范围的起点，0表示全部
+    private long visibleFrom() {
+        int months = RANGE_MONTHS[Math.max(0, rangeChoice.getItems().indexOf(rangeChoice.getValue()))];
+        if (months == 0) {
+            return times.length > 0 ? times[0] : 0;
+        }
+        return LocalDateTime.now().minusMonths(months).atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private void redraw() {
+        drawSeries();
+        drawHeatmap();
+    }
+
+    private void drawSeries() {
+        GraphicsContext gc = seriesCanvas.getGraphicsContext2D();
+        double width = seriesCanvas.getWidth();
+        double height = seriesCanvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        if (width <= PADDING * 2 || height <= PADDING * 2) {
+            return;
+        }
+        double plotWidth = width - PADDING * 2;
+        double plotHeight = height - PADDING * 2;
+
+        long from = visibleFrom();
+        long to = Instant.now().getEpochSecond();
+        int start = lowerBound(times, from);
+        int end = lowerBound(times, to + 1);
+        summaryLabel.setText("共 " + (end - start) + " 次");
+
+        gc.setStroke(AXIS_COLOR);
+        gc.setLineWidth(1);
+        gc.strokeLine(PADDING, height - PADDING, width - PADDING, height - PADDING);
+        gc.strokeLine(PADDING, PADDING, PADDING, height - PADDING);
+        gc.setFill(TEXT_COLOR);
+        if (end - start == 0 || to <= from) {
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.fillText("暂无记录", width / 2, height / 2);
+            return;
+        }
+
+        // 纵轴上限取可见范围内的最大值
+        double max = 1;
+        for (int i = start; i < end; i++) {
+            max = Math.max(max, minutes[i]);
+        }
+
+        int[] sampled = SeriesDownsampler.largestTriangleThreeBuckets(times, minutes, start, end, (int) plotWidth);
+        if (pointsX.length < sampled.length) {
+            pointsX = new double[sampled.length];
+            pointsY = new double[sampled.length];
+        }
+        double span = to - from;
+        for (int i = 0; i < sampled.length; i++) {
+            int index = sampled[i];
+            pointsX[i] = PADDING + (times[index] - from) / span * plotWidth;
+            pointsY[i] = height - PADDING - minutes[index] / max * plotHeight;
+        }
+        gc.setStroke(LINE_COLOR);
+        gc.setLineWidth(1.5);
+        gc.strokePolyline(pointsX, pointsY, sampled.length);
+
+        // 坐标轴标注
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText(String.format("%.0f 分钟", max), PADDING + 4, PADDING - 8);
+        gc.fillText(format(from), PADDING, height - PADDING + 18);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.fillText(format(to), width - PADDING, height - PADDING + 18);
+    }
+
+    // 按小时统计桶汇总可见范围内各星期各小时的久坐时长
+    private void updateHeatmap() {
+        long[][] cells = new long[7][24];
+        if (statistics != null) {
+            LocalDateTime from = LocalDateTime.ofInstant(Instant.ofEpochSecond(visibleFrom()), ZoneId.systemDefault());
+            List<ActivityStatistics.Bucket> buckets = statistics.range(ActivityStatistics.Granularity.HOUR,
+                    from, LocalDateTime.now().plusHours(1));
+            for (ActivityStatistics.Bucket bucket : buckets) {
+                LocalDateTime time = bucket.getStartTime();
+                cells[time.getDayOfWeek().getValue() - 1][time.getHour()] += bucket.getTotalSeconds();
+            }
+        }
+        heatmap = cells;
+    }
+
+    private void drawHeatmap() {
+        GraphicsContext gc = heatmapCanvas.getGraphicsContext2D();
+        double width = heatmapCanvas.getWidth();
+        double height = heatmapCanvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        if (width <= PADDING * 2 || height <= PADDING * 2) {
+            return;
+        }
+        double cellWidth = (width - PADDING * 2) / 24;
+        double cellHeight = (height - PADDING * 2) / 7;
+
+        long max = 1;
+        for (long[] row : heatmap) {
+            for (long value : row) {
+                max = Math.max(max, value);
+            }
+        }
+
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                double ratio = (double) heatmap[day][hour] / max;
+                gc.setFill(Color.WHITE.interpolate(LINE_COLOR, ratio));
+                gc.fillRect(PADDING + hour * cellWidth, PADDING + day * cellHeight, cellWidth - 1, cellHeight - 1);
+            }
+        }
+
+        // 星期和小时标注
+        gc.setFill(TEXT_COLOR);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        for (int day = 0; day < 7; day++) {
+            gc.fillText(WEEKDAY_NAMES[day], PADDING - 8, PADDING + day * cellHeight + cellHeight / 2 + 4);
+        }
+        gc.setTextAlign(TextAlignment.CENTER);
+        for (int hour = 0; hour < 24; hour += 3) {
+            gc.fillText(String.valueOf(hour), PADDING + hour * cellWidth + cellWidth / 2, PADDING - 8);
+        }
+    }
+
+    private static String format(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()).format(DATE_FORMATTER);
+    }
+
+    // 第一个不小于value的元素下标
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo;
+
+import java.util.Locale;
+
+/**
+ * 用户输入活动的数据源，供IdleDetector判断用户是否已经离开
+ */
+public interface ActivitySource {
+    /**
+     * 距离最近一次键盘或鼠标输入的时间
+     * @return 空闲时长（毫秒），无法获取时返回-1
+     */
+    long getIdleMillis();
+
+    // 数据源名称，用于日志
+    String getName();
+
+    // 释放资源，默认无操作
+    default void close() {
+    }
+
+    /**
+     * 按当前平台选择可用的数据源
+     * @return 数据源，没有可用的实现时返回null
+     */
+    static ActivitySource detect() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        try {
+            if (os.contains("win")) {
+                return new WindowsActivitySource();
+            }
+            if (os.contains("linux")) {
+                // 图形会话中优先使用X11屏幕保护扩展，否则统计输入设备的中断次数
+                ActivitySource x11 = X11ActivitySource.open();
+                if (x11 != null) {
+                    return x11;
+                }
+                return InterruptActivitySource.open();
+            }
+        } catch (Throwable e) {
+            // JNA本地库加载失败时会抛出Error，此时视为不支持
+            System.err.println("初始化用户活动检测失败：" + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,305 @@
+package com.demo;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 增量维护的活动统计。
+ * 按小时、天、ISO周、月预先汇总久坐总时长、最长一次久坐、休息次数和达标率，
+ * 每追加一条提醒记录只更新对应的四个桶，不会重新扫描历史。
+ * 统计结果连同每个月份段已计入的记录条数一起保存，
+ * 启动时每个段只需补上超出已计入条数的记录，开始时间相同或被回拨的记录也不会漏算。
+ */
+public class ActivityStatistics {
+    public static final String FILE_NAME = "statistics.dat";
+    private static final int MAGIC = 0x53535453; // "SSTS"
+    private static final int VERSION = 2; // 版本1使用开始时间水位线，读取时会从记录库重建
+    private static final long COMPLIANCE_GRACE_SECONDS = 60; // 达标判断的宽限时间
+
+    /**
+     * 统计粒度
+     */
+    public enum Granularity {
+        HOUR, DAY, WEEK, MONTH
+    }
+
+    /**
+     * 一个统计桶
+     */
+    public static final class Bucket {
+        private final Granularity granularity;
+        private final long key;
+        private int sessions;       // 久坐次数
+        private int breaks;         // 因提醒而起身休息的次数
+        private int compliant;      // 未超过目标时长的久坐次数
+        private long totalSeconds;  // 久坐总时长
+        private long longestSeconds; // 最长一次久坐
+
+        private Bucket(Granularity granularity, long key) {
+            this.granularity = granularity;
+            this.key = key;
+        }
+
+        private Bucket copy() {
+            Bucket copy = new Bucket(granularity, key);
+            copy.sessions = sessions;
+            copy.breaks = breaks;
+            copy.compliant = compliant;
+            copy.totalSeconds = totalSeconds;
+            copy.longestSeconds = longestSeconds;
+            return copy;
+        }
+
+        public Granularity getGranularity() {
+            return granularity;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getBreaks() {
+            return breaks;
+        }
+
+        public long getTotalSeconds() {
+            return totalSeconds;
+        }
+
+        public long getLongestSeconds() {
+            return longestSeconds;
+        }
+
+        // 达标率：未超过提醒间隔的久坐次数占比
+        public double getComplianceRatio() {
+            return sessions == 0 ? 1.0 : (double) compliant / sessions;
+        }
+
+        // 该桶覆盖时段的起始时间
+        public LocalDateTime getStartTime() {
+            return startOf(granularity, key);
+        }
+    }
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Granularity, TreeMap<Long, Bucket>> buckets = new EnumMap<>(Granularity.class);
+    // 各月份段（键同MONTH粒度的桶键）已计入的记录条数
+    private final TreeMap<Long, Long> consumed = new TreeMap<>();
+    private long complianceTargetSeconds;
+
+    public ActivityStatistics(long complianceTargetSeconds) {
+        this.complianceTargetSeconds = complianceTargetSeconds;
+        for (Granularity granularity : Granularity.values()) {
+            buckets.put(granularity, new TreeMap<>());
+        }
+    }
+
+    /**
+     * 加载保存的统计结果，并补上各段中尚未计入的记录；
+     * 统计文件不存在或损坏时从记录库完整重建一次
+     */
+    public static ActivityStatistics load(Path file, SegmentedRecordStore store, long complianceTargetSeconds) throws IOException {
+        ActivityStatistics statistics = new ActivityStatistics(complianceTargetSeconds);
+        if (Files.isRegularFile(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                statistics.read(input);
+            } catch (IOException e) {
+                System.err.println("统计文件损坏，将从提醒记录重建：" + e.getMessage());
+                statistics.clear();
+            }
+        }
+        if (store != null) {
+            statistics.catchUp(store);
+        }
+        return statistics;
+    }
+
+    // 补上记录库各段中超出已计入条数的记录
+    private void catchUp(SegmentedRecordStore store) throws IOException {
+        int[] added = {0};
+        for (YearMonth month : store.listMonths()) {
+            long skip = getConsumedCount(month);
+            long[] index = {0};
+            store.forEachInMonth(month, (start, end, flags) -> {
+                if (index[0]++ >= skip) {
+                    add(start, end, flags);
+                    added[0]++;
+                }
+            });
+        }
+        if (added[0] > 0) {
+            System.out.println("活动统计已补充" + added[0] + "条提醒记录");
+        }
+    }
+
+    // 计入一条记录，只更新它所属的各粒度桶
+    public synchronized void add(long startEpochSecond, long endEpochSecond, int flags) {
+        long seconds = Math.max(0, endEpochSecond - startEpochSecond);
+        boolean isBreak = (flags & (ReminderRecord.FLAG_TRIGGERED | ReminderRecord.FLAG_IDLE)) != 0;
+        boolean isCompliant = seconds <= complianceTargetSeconds + COMPLIANCE_GRACE_SECONDS;
+        LocalDateTime start = toDateTime(startEpochSecond);
+        for (Granularity granularity : Granularity.values()) {
+            long key = keyOf(granularity, start);
+            Bucket bucket = buckets.get(granularity).computeIfAbsent(key, k -> new Bucket(granularity, k));
+            bucket.sessions++;
+            if (isBreak) {
+                bucket.breaks++;
+            }
+            if (isCompliant) {
+                bucket.compliant++;
+            }
+            bucket.totalSeconds += seconds;
+            bucket.longestSeconds = Math.max(bucket.longestSeconds, seconds);
+        }
+        consumed.merge(keyOf(Granularity.MONTH, start), 1L, Long::sum);
+    }
+
+    public void add(ReminderRecord record) {
+        add(record.getStartEpochSecond(), record.getEndEpochSecond(), record.getFlags());
+    }
+
+    // 取得包含指定时间的桶，没有数据时返回null
+    public synchronized Bucket get(Granularity granularity, LocalDateTime time) {
+        Bucket bucket = buckets.get(granularity).get(keyOf(granularity, time));
+        return bucket != null ? bucket.copy() : null;
+    }
+
+    // 取得[from, to)时段内的所有桶，按时间升序
+    public synchronized List<Bucket> range(Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        List<Bucket> result = new ArrayList<>();
+        for (Bucket bucket : buckets.get(granularity).subMap(keyOf(granularity, from), true,
+                keyOf(granularity, to), false).values()) {
+            result.add(bucket.copy());
+        }
+        return result;
+    }
+
+    // 指定月份段中已计入的记录条数
+    public synchronized long getConsumedCount(YearMonth month) {
+        return consumed.getOrDefault(month.getYear() * 12L + month.getMonthValue() - 1, 0L);
+    }
+
+    public synchronized void setComplianceTargetSeconds(long complianceTargetSeconds) {
+        // 只影响之后计入的记录，已汇总的达标次数保持不变
+        this.complianceTargetSeconds = complianceTargetSeconds;
+    }
+
+    public synchronized void clear() {
+        for (TreeMap<Long, Bucket> map : buckets.values()) {
+            map.clear();
+        }
+        consumed.clear();
+    }
+
+    // 序列化当前统计结果，供后台线程写入文件
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        synchronized (this) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(consumed.size());
+            for (Map.Entry<Long, Long> entry : consumed.entrySet()) {
+                output.writeLong(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+            for (Granularity granularity : Granularity.values()) {
+                TreeMap<Long, Bucket> map = buckets.get(granularity);
+                output.writeInt(map.size());
+                for (Bucket bucket : map.values()) {
+                    output.writeLong(bucket.key);
+                    output.writeInt(bucket.sessions);
+                    output.writeInt(bucket.breaks);
+                    output.writeInt(bucket.compliant);
+                    output.writeLong(bucket.totalSeconds);
+                    output.writeLong(bucket.longestSeconds);
+                }
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private synchronized void read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+        if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+            throw new IOException("不支持的统计文件格式");
+        }
+        int months = input.readInt();
+        for (int i = 0; i < months; i++) {
+            consumed.put(input.readLong(), input.readLong());
+        }
+        for (Granularity granularity : Granularity.values()) {
+            TreeMap<Long, Bucket> map = buckets.get(granularity);
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                Bucket bucket = new Bucket(granularity, input.readLong());
+                bucket.sessions = input.readInt();
+                bucket.breaks = input.readInt();
+                bucket.compliant = input.readInt();
+                bucket.totalSeconds = input.readLong();
+                bucket.longestSeconds = input.readLong();
+                map.put(bucket.key, bucket);
+            }
+        }
+    }
+
+    private LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+    }
+
+    // 各粒度的桶键：小时和天按纪元日计算，周为ISO周年*100+周数，月为年*12+月份
+    public static long keyOf(Granularity granularity, LocalDateTime time) {
+        switch (granularity) {
+            case HOUR:
+                return time.toLocalDate().toEpochDay() * 24 + time.getHour();
+            case DAY:
+                return time.toLocalDate().toEpochDay();
+            case WEEK:
+                return time.get(IsoFields.WEEK_BASED_YEAR) * 100L + time.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            case MONTH:
+            default:
+                return time.getYear() * 12L + time.getMonthValue() - 1;
+        }
+    }
+
+    // 桶键对应时段的起始时间
+    public static LocalDateTime startOf(Granularity granularity, long key) {
+        switch (granularity) {
+            case HOUR:
+                return LocalDate.ofEpochDay(Math.floorDiv(key, 24)).atTime(Math.floorMod(key, 24), 0);
+            case DAY:
+                return LocalDate.ofEpochDay(key).atStartOfDay();
+            case WEEK:
+                return LocalDate.of((int) (key / 100), 1, 4)
+                        .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, key % 100)
+                        .with(DayOfWeek.MONDAY)
+                        .atStartOfDay();
+            case MONTH:
+            default:
+                return LocalDate.of((int) Math.floorDiv(key, 12), Math.floorMod(key, 12) + 1, 1).atStartOfDay();
+        }
+    }
+}
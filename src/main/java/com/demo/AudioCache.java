@@ -0,0 +1,250 @@
+package com.demo;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 解码后音频的缓存。
+ * 以声音文件路径加修改时间为键保存解码好的16位PCM数据，总字节数超过预算时淘汰最久未使用的条目，
+ * 重复提醒时直接从内存播放，不再访问磁盘或重新解码MP3。
+ */
+public class AudioCache {
+    public static final int DEFAULT_BUDGET_MB = 16;
+    private static final String RESOURCE_PREFIX = "sounds/";
+
+    /**
+     * 解码后的声音：PCM格式和数据，数据可以在堆中，也可以是导入文件的内存映射
+     */
+    public static final class DecodedSound {
+        private final AudioFormat format;
+        private final ByteBuffer data;
+
+        DecodedSound(AudioFormat format, byte[] data) {
+            this(format, ByteBuffer.wrap(data));
+        }
+
+        DecodedSound(AudioFormat format, ByteBuffer data) {
+            this.format = format;
+            this.data = data.asReadOnlyBuffer();
+        }
+
+        public AudioFormat getFormat() {
+            return format;
+        }
+
+        // 只读的PCM数据视图
+        public ByteBuffer getData() {
+            return data.duplicate();
+        }
+
+        public int getSizeBytes() {
+            return data.remaining();
+        }
+
+        public long getDurationMillis() {
+            return (long) (data.remaining() / format.getFrameSize() * 1000L / format.getFrameRate());
+        }
+
+        // 创建一个从头读取的数据源，多个数据源共享同一份只读数据
+        public PcmSource newSource() {
+            ByteBuffer view = data.duplicate();
+            return new PcmSource() {
+                @Override
+                public AudioFormat getFormat() {
+                    return format;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, view.remaining());
+                    view.get(buffer, offset, count);
+                    return count;
+                }
+            };
+        }
+    }
+
+    private static AudioCache instance;
+
+    private final LinkedHashMap<String, DecodedSound> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long budgetBytes;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    private AudioCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static synchronized AudioCache getInstance() {
+        if (instance == null) {
+            instance = new AudioCache(Configuration.getInstance().getSoundCacheMegabytes() * 1024L * 1024L);
+        }
+        return instance;
+    }
+
+    /**
+     * 取得解码后的声音，先查找内置资源sounds/下的文件，再按用户文件路径查找；
+     * 文件不存在或格式不支持时返回null
+     */
+    public DecodedSound get(String soundFilePath) throws Exception {
+        URL resourceUrl = AudioCache.class.getClassLoader().getResource(RESOURCE_PREFIX + soundFilePath);
+        String key;
+        String extension;
+        if (resourceUrl != null) {
+            // 内置资源在运行期间不会变化，只用URL作为键
+            key = resourceUrl.toExternalForm();
+            extension = getFileExtension(resourceUrl.getFile());
+        } else {
+            File file = new File(soundFilePath);
+            if (!file.isFile()) {
+                return null;
+            }
+            key = file.getAbsolutePath() + "@" + file.lastModified();
+            extension = getFileExtension(file.getName());
+        }
+        boolean imported = SoundImporter.IMPORTED_EXTENSION.equalsIgnoreCase(extension);
+        if (!imported && !"mp3".equalsIgnoreCase(extension) && !"wav".equalsIgnoreCase(extension)) {
+            return null;
+        }
+
+        synchronized (this) {
+            DecodedSound cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        DecodedSound sound;
+        if (imported && resourceUrl == null) {
+            // 导入后的声音已是归一化的PCM，直接内存映射，无需解码
+            sound = SoundImporter.map(new File(soundFilePath).toPath());
+        } else {
+            try (InputStream input = new BufferedInputStream(resourceUrl != null
+                    ? resourceUrl.openStream() : new FileInputStream(soundFilePath))) {
+                sound = decode(input, extension);
+            }
+        }
+        put(key, sound);
+        return sound;
+    }
+
+    // 按扩展名把WAV或MP3解码为16位PCM
+    static DecodedSound decode(InputStream input, String extension) throws Exception {
+        return "mp3".equalsIgnoreCase(extension) ? decodeMp3(input) : decodeWav(input);
+    }
+
+    private synchronized void put(String key, DecodedSound sound) {
+        long size = sound.getSizeBytes();
+        if (size > budgetBytes) {
+            return; // 超过整个预算的声音不缓存
+        }
+        // 同一文件修改后的旧版本会按最久未使用被淘汰
+        DecodedSound previous = entries.put(key, sound);
+        if (previous != null) {
+            usedBytes -= previous.getSizeBytes();
+        }
+        usedBytes += size;
+        evict();
+    }
+
+    // 淘汰最久未使用的条目直到不超过预算
+    private void evict() {
+        Iterator<Map.Entry<String, DecodedSound>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            usedBytes -= iterator.next().getValue().getSizeBytes();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized String describe() {
+        return String.format("音频缓存：%d条，%.1fMB/%.1fMB，命中%d次，未命中%d次",
+                entries.size(), usedBytes / 1048576.0, budgetBytes / 1048576.0, hits, misses);
+    }
+
+    // 把WAV解码为16位有符号PCM
+    private static DecodedSound decodeWav(InputStream input) throws Exception {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(input)) {
+            AudioFormat sourceFormat = source.getFormat();
+            AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(), 16,
+                    sourceFormat.getChannels(), sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(), false);
+            AudioInputStream pcm = sourceFormat.matches(pcmFormat) ? source : AudioSystem.getAudioInputStream(pcmFormat, source);
+            return new DecodedSound(pcmFormat, pcm.readAllBytes());
+        }
+    }
+
+    // 使用JLayer的解码器把MP3逐帧解码为16位有符号PCM
+    private static DecodedSound decodeMp3(InputStream input) throws Exception {
+        Bitstream bitstream = new Bitstream(input);
+        Decoder decoder = new Decoder();
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        int sampleRate = 0;
+        int channels = 0;
+        try {
+            Header header;
+            while ((header = bitstream.readFrame()) != null) {
+                SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+                sampleRate = output.getSampleFrequency();
+                channels = output.getChannelCount();
+                short[] samples = output.getBuffer();
+                int length = output.getBufferLength();
+                for (int i = 0; i < length; i++) {
+                    pcm.write(samples[i] & 0xFF);
+                    pcm.write((samples[i] >> 8) & 0xFF);
+                }
+                bitstream.closeFrame();
+            }
+        } finally {
+            bitstream.close();
+        }
+        if (sampleRate == 0) {
+            throw new IOException("无法解码MP3文件");
+        }
+        AudioFormat format = new AudioFormat(sampleRate, 16, channels, true, false);
+        return new DecodedSound(format, pcm.toByteArray());
+    }
+
+    static String getFileExtension(String filePath) {
+        int lastDotIndex = filePath.lastIndexOf('.');
+        if (lastDotIndex > 0 && lastDotIndex < filePath.length() - 1) {
+            return filePath.substring(lastDotIndex + 1);
+        }
+        return "";
+    }
+}
@@ -0,0 +1,222 @@
+package com.demo;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 常驻的音频引擎。
+ * 由单个后台线程持有一条预先打开的SourceDataLine，按顺序播放队列中的声音，
+ * 不再为每次提醒创建线程和打开Clip。播放可以随时中断，结束时回调通知。
+ */
+public class AudioEngine {
+    // 预先打开输出线路使用的格式，与内置提示音一致
+    private static final AudioFormat DEFAULT_FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int BUFFER_MILLIS = 20; // 每次写入线路的数据时长
+    // 线路缓冲区能容纳的块数。中断时已写入线路的数据无法再处理，缓冲区越小淡出开始得越早
+    private static final int LINE_BUFFER_CHUNKS = 3;
+    private static final long FADE_IN_MILLIS = 10;   // 开始播放时的淡入，避免爆音
+    private static final long FADE_OUT_MILLIS = 40;  // 中断播放时的淡出
+    private static final long DUCK_RAMP_MILLIS = 150; // 闪避音量的过渡时间
+    public static final float DEFAULT_DUCK_DB = -12f;
+
+    /**
+     * 在音频线程中加载数据源，缓存未命中时的解码也在音频线程中完成
+     */
+    public interface SourceLoader {
+        PcmSource load() throws Exception;
+    }
+
+    /**
+     * 播放结束回调，在音频线程中调用
+     */
+    public interface CompletionListener {
+        void onComplete(Playback playback, boolean interrupted);
+    }
+
+    /**
+     * 一次播放请求
+     */
+    public static final class Playback {
+        private final SourceLoader loader;
+        private final float gainDb;
+        private final CompletionListener listener;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        private Playback(SourceLoader loader, float gainDb, CompletionListener listener) {
+            this.loader = loader;
+            this.gainDb = gainDb;
+            this.listener = listener;
+        }
+
+        // 中断播放，尚未开始的请求直接跳过
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public float getGainDb() {
+            return gainDb;
+        }
+    }
+
+    private static AudioEngine instance;
+
+    private final LinkedBlockingQueue<Playback> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private SourceDataLine line; // 只在音频线程中访问
+    private byte[] buffer = new byte[0];
+    private final GainStage gainStage = new GainStage(); // 只在音频线程中访问
+    private volatile float duckDb; // 0表示不闪避
+    private volatile Playback current;
+
+    private AudioEngine() {
+        thread = new Thread(this::run, "audio-engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static synchronized AudioEngine getInstance() {
+        if (instance == null) {
+            instance = new AudioEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * 把声音加入播放队列
+     * @param gainDb 增益（dB），0表示原音量，负值表示降低音量
+     * @param listener 播放结束回调，可以为null
+     */
+    public Playback play(SourceLoader loader, float gainDb, CompletionListener listener) {
+        Playback playback = new Playback(loader, gainDb, listener);
+        queue.offer(playback);
+        return playback;
+    }
+
+    // 中断当前播放并取消队列中的所有请求，被取消的请求同样会收到结束回调
+    public void stopAll() {
+        for (Playback playback : queue) {
+            playback.cancel();
+        }
+        Playback playing = current;
+        if (playing != null) {
+            playing.cancel();
+        }
+    }
+
+    /**
+     * 闪避：临时压低正在播放和之后播放的声音，例如有更重要的提示时
+     * @param duckDb 压低的分贝数，0表示恢复正常音量
+     */
+    public void setDuck(float duckDb) {
+        this.duckDb = Math.min(0f, duckDb);
+    }
+
+    public boolean isPlaying() {
+        return current != null;
+    }
+
+    private void run() {
+        // 启动时预先打开输出线路，首次提醒无需等待设备初始化
+        ensureLine(DEFAULT_FORMAT);
+        while (true) {
+            Playback playback;
+            try {
+                playback = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            current = playback;
+            boolean interrupted = true;
+            try {
+                if (!playback.cancelled) {
+                    interrupted = !stream(playback);
+                }
+            } catch (Exception e) {
+                System.err.println("播放声音失败：" + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                playback.done = true;
+                current = null;
+            }
+            if (playback.listener != null) {
+                try {
+                    playback.listener.onComplete(playback, interrupted);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // 把数据源写入线路，完整播放完返回true，被中断返回false
+    private boolean stream(Playback playback) throws Exception {
+        PcmSource source = playback.loader.load();
+        if (source == null) {
+            return true;
+        }
+        if (!ensureLine(source.getFormat())) {
+            return false;
+        }
+        AudioFormat format = source.getFormat();
+        int chunk = (int) (format.getFrameRate() * BUFFER_MILLIS / 1000) * format.getFrameSize();
+        if (buffer.length < chunk) {
+            buffer = new byte[chunk];
+        }
+        float appliedDuckDb = duckDb;
+        gainStage.setDuck(appliedDuckDb, 0);
+        gainStage.start(format, playback.gainDb, FADE_IN_MILLIS);
+        line.start();
+        int read;
+        while ((read = source.read(buffer, 0, chunk)) > 0) {
+            if (appliedDuckDb != duckDb) {
+                appliedDuckDb = duckDb;
+                gainStage.setDuck(appliedDuckDb, DUCK_RAMP_MILLIS);
+            }
+            if (playback.cancelled) {
+                gainStage.fadeOut(FADE_OUT_MILLIS);
+            }
+            gainStage.process(buffer, 0, read);
+            line.write(buffer, 0, read);
+            if (gainStage.isSilent()) {
+                break; // 淡出已写完，剩余数据不再写入
+            }
+        }
+        // 等线路中的数据（包括淡出部分）播放完再停止，flush会把淡出一起丢掉造成爆音
+        line.drain();
+        line.stop();
+        return !playback.cancelled;
+    }
+
+    // 确保线路以指定格式打开，格式相同时复用已打开的线路
+    private boolean ensureLine(AudioFormat format) {
+        if (line != null && line.isOpen() && line.getFormat().matches(format)) {
+            return true;
+        }
+        if (line != null) {
+            line.close();
+            line = null;
+        }
+        try {
+            SourceDataLine opened = AudioSystem.getSourceDataLine(format);
+            int bufferBytes = (int) (format.getFrameRate() * BUFFER_MILLIS * LINE_BUFFER_CHUNKS / 1000) * format.getFrameSize();
+            opened.open(format, bufferBytes);
+            line = opened;
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("无法打开音频输出线路：" + e.getMessage());
+            return false;
+        }
+    }
+}
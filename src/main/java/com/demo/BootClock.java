@@ -0,0 +1,87 @@
+package com.demo;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Structure;
+
+import java.util.Locale;
+
+/**
+ * 计入系统休眠时间的单调时钟，供ReminderClock区分休眠和系统时间调整。
+ * System.nanoTime在Linux（CLOCK_MONOTONIC）和macOS上休眠期间停止走时，休眠后看起来只是系统时间前跳；
+ * 因此在Linux上读取CLOCK_BOOTTIME，在macOS上读取CLOCK_MONOTONIC（macOS的该时钟包含休眠时间）。
+ * Windows的System.nanoTime（QueryPerformanceCounter）本身就计入休眠时间，直接使用。
+ * 本地调用不可用时退回System.nanoTime，此时Linux和macOS上的休眠无法被识别。
+ */
+public final class BootClock {
+    private static final int LINUX_CLOCK_BOOTTIME = 7;
+    private static final int MACOS_CLOCK_MONOTONIC = 6;
+
+    private static final LibC LIBC;
+    private static final int CLOCK_ID;
+    private static final Timespec TIMESPEC = new Timespec(); // 每次读取复用，由类锁保护
+    private static boolean nativeClock;
+    private static long offsetNanos; // 退回System.nanoTime后与之前读数的差，保证读数连续
+
+    static {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        int clockId = -1;
+        if (os.contains("linux")) {
+            clockId = LINUX_CLOCK_BOOTTIME;
+        } else if (os.contains("mac")) {
+            clockId = MACOS_CLOCK_MONOTONIC;
+        }
+        LibC libc = null;
+        if (clockId >= 0) {
+            try {
+                libc = Native.load("c", LibC.class);
+                if (libc.clock_gettime(clockId, TIMESPEC) != 0) {
+                    System.err.println("无法读取包含休眠时间的时钟，休眠检测不可用");
+                    libc = null;
+                }
+            } catch (UnsatisfiedLinkError | NoClassDefFoundError e) {
+                System.err.println("无法加载clock_gettime，休眠检测不可用：" + e);
+                libc = null;
+            }
+        }
+        LIBC = libc;
+        CLOCK_ID = clockId;
+        nativeClock = libc != null;
+    }
+
+    private BootClock() {
+    }
+
+    /**
+     * 当前时间（纳秒），只用于计算时间差，与System.nanoTime不在同一基准上
+     */
+    public static synchronized long nanoTime() {
+        if (nativeClock) {
+            if (LIBC.clock_gettime(CLOCK_ID, TIMESPEC) == 0) {
+                long nanos = TIMESPEC.tv_sec.longValue() * 1_000_000_000L + TIMESPEC.tv_nsec.longValue();
+                offsetNanos = nanos - System.nanoTime();
+                return nanos;
+            }
+            System.err.println("读取包含休眠时间的时钟失败，改用System.nanoTime");
+            nativeClock = false;
+        }
+        return System.nanoTime() + offsetNanos;
+    }
+
+    // 读数是否计入休眠时间
+    public static synchronized boolean countsSuspend() {
+        return nativeClock || System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+    }
+
+    // libc中用到的函数
+    public interface LibC extends Library {
+        int clock_gettime(int clockId, Timespec tp);
+    }
+
+    @Structure.FieldOrder({"tv_sec", "tv_nsec"})
+    public static class Timespec extends Structure {
+        public NativeLong tv_sec;
+        public NativeLong tv_nsec;
+    }
+}
@@ -1,29 +1,21 @@
 package com.demo;
 
 import javafx.application.Platform;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 
 import java.io.File;
-import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.ResourceBundle;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class ConfigurableMainWindowController implements Initializable {
     // 基础设置UI组件
@@ -36,11 +28,18 @@ public class ConfigurableMainWindowController implements Initializable {
     @FXML private Button aboutButton; // 关于软件按钮
     
     // 提醒记录UI组件
-    @FXML private TableView<ReminderRecord> reminderRecordsTable;
-    @FXML private TableColumn<ReminderRecord, String> startTimeColumn;
-    @FXML private TableColumn<ReminderRecord, String> endTimeColumn;
-    @FXML private TableColumn<ReminderRecord, String> durationColumn;
+    @FXML private TableView<RecordRow> reminderRecordsTable;
+    @FXML private TableColumn<RecordRow, String> startTimeColumn;
+    @FXML private TableColumn<RecordRow, String> endTimeColumn;
+    @FXML private TableColumn<RecordRow, String> durationColumn;
     @FXML private Button clearRecordsButton; // 清空记录按钮
+    @FXML private ChoiceBox<String> recordRangeChoiceBox; // 提醒记录的显示范围
+    @FXML private Tab dashboardTab; // 活动统计标签页
+    @FXML private ActivityDashboard activityDashboard;
+    private final RecordTableModel recordTableModel = new RecordTableModel(); // 提醒记录表格的数据源
+    // 记录表格的显示范围及对应的天数，0表示全部
+    private static final String[] RECORD_RANGE_NAMES = {"今天", "最近7天", "最近30天", "最近一年", "全部"};
+    private static final int[] RECORD_RANGE_DAYS = {1, 7, 30, 365, 0};
     
     // 高级设置UI组件
     @FXML private TextArea reminderTextArea;
@@ -48,6 +47,7 @@ public class ConfigurableMainWindowController implements Initializable {
     @FXML private ChoiceBox<String> popupColorChoiceBox;
     @FXML private Button browseSoundButton;
     @FXML private Button restoreDefaultSoundButton;
+    @FXML private Label soundImportLabel; // 导入提示音时显示进度，不占用文件路径输入框
     @FXML private CheckBox popupCheckBox;
     @FXML private CheckBox soundCheckBox;
     @FXML private CheckBox flashCheckBox;
@@ -60,9 +60,28 @@ public class ConfigurableMainWindowController implements Initializable {
     // 配置相关
     private Configuration config;
     private boolean isReminderRunning = false;
-    private Timer timer; // 用于倒计时
-    private long startTimeMillis; // 提醒开始时间
-    private long nextReminderMillis; // 下次提醒时间
+    private ReminderScheduler.Task countdownTask; // 用于倒计时
+    private final CountdownRenderer countdownRenderer = new CountdownRenderer(); // 复用缓冲区生成倒计时文字
+    // 倒计时的调度任务，只创建一次，每次触发不再新建lambda
+    private final Runnable countdownUpdate = this::updateCountdown;
+    private final Runnable countdownTick = () -> Platform.runLater(countdownUpdate);
+    private final Runnable hiddenCountdownUpdate = this::onHiddenCountdownDue;
+    private final Runnable hiddenCountdownTick = () -> Platform.runLater(hiddenCountdownUpdate);
+    private boolean windowVisible = true; // 主窗口是否可见，最小化或隐藏时不再逐秒刷新倒计时
+    private boolean userAway; // 用户是否已离开，离开期间暂停倒计时
+    private long pausedRemainingMillis; // 离开时扣除空闲时间后的剩余时间
+    private final IdleDetector.Listener idleListener = new IdleDetector.Listener() {
+        @Override
+        public void onAway(long idleMillis) {
+            Platform.runLater(() -> onUserAway(idleMillis));
+        }
+        
+        @Override
+        public void onReturn(long awayMillis) {
+            Platform.runLater(() -> onUserReturn());
+        }
+    };
+    private ReminderClock reminderClock; // 提醒计时时钟
     private LocalDateTime currentReminderStartTime; // 当前提醒的开始时间
     
     @Override
@@ -90,8 +109,47 @@ public class ConfigurableMainWindowController implements Initializable {
         // 初始化提醒记录表
         initializeReminderRecordsTable();
         
+        // 切换到活动统计标签页时在后台重新加载数据
+        if (dashboardTab != null && activityDashboard != null) {
+            dashboardTab.setOnSelectionChanged(event -> {
+                if (dashboardTab.isSelected()) {
+                    activityDashboard.refresh(config);
+                }
+            });
+        }
+        
         // 初始状态：停止按钮禁用
         stopButton.setDisable(true);
+        
+        // 窗口在initialize之后才创建，稍后再监听可见状态
+        Platform.runLater(this::watchWindowVisibility);
+    }
+    
+    // 监听主窗口的最小化和显示状态
+    private void watchWindowVisibility() {
+        if (startButton.getScene() == null || !(startButton.getScene().getWindow() instanceof Stage)) {
+            return;
+        }
+        Stage stage = (Stage) startButton.getScene().getWindow();
+        stage.iconifiedProperty().addListener((observable, oldValue, newValue) -> onWindowVisibilityChanged(stage));
+        stage.showingProperty().addListener((observable, oldValue, newValue) -> onWindowVisibilityChanged(stage));
+        onWindowVisibilityChanged(stage);
+    }
+    
+    // 窗口不可见时改为只在提醒到期时唤醒一次，恢复可见时立即刷新并重新对齐到整秒
+    private void onWindowVisibilityChanged(Stage stage) {
+        boolean visible = stage.isShowing() && !stage.isIconified();
+        if (visible == windowVisible) {
+            return;
+        }
+        windowVisible = visible;
+        if (isReminderRunning && !userAway) {
+            // 隐藏和恢复时都先检查一次时钟，隐藏期间的等待从这次检查算起，不会被当作休眠
+            updateCountdown();
+            if (isReminderRunning) {
+                startCountdown();
+            }
+        }
     }
     
     // 初始化提醒记录表
@@ -100,18 +158,49 @@ public class ConfigurableMainWindowController implements Initializable {
             return; // FXML中未定义该组件
         }
         
-        // 设置表格列，先检查列是否为null
+        // 设置表格列，先检查列是否为null；直接读取行内缓存的显示文本，不使用反射
         if (startTimeColumn != null) {
-            startTimeColumn.setCellValueFactory(new PropertyValueFactory<>("startTimeDisplay"));
+            startTimeColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getStartTimeDisplay()));
         }
         if (endTimeColumn != null) {
-            endTimeColumn.setCellValueFactory(new PropertyValueFactory<>("endTimeDisplay"));
+            endTimeColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getEndTimeDisplay()));
         }
         if (durationColumn != null) {
-            durationColumn.setCellValueFactory(new PropertyValueFactory<>("durationDisplay"));
+            durationColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getDurationDisplay()));
+        }
+        
+        // 排序交给数据源重排下标，不修改列表本身
+        reminderRecordsTable.setSortPolicy(table -> {
+            RecordTableModel.SortKey key = RecordTableModel.SortKey.INSERTION;
+            boolean ascending = true;
+            if (!table.getSortOrder().isEmpty()) {
+                TableColumn<RecordRow, ?> column = table.getSortOrder().get(0);
+                if (column == startTimeColumn) {
+                    key = RecordTableModel.SortKey.START;
+                } else if (column == endTimeColumn) {
+                    key = RecordTableModel.SortKey.END;
+                } else if (column == durationColumn) {
+                    key = RecordTableModel.SortKey.DURATION;
+                }
+                ascending = column.getSortType() == TableColumn.SortType.ASCENDING;
+            }
+            recordTableModel.sort(key, ascending);
+            return true;
+        });
+        
+        // 按显示范围筛选记录，更早的历史记录由数据源在后台读取
+        if (recordRangeChoiceBox != null) {
+            recordRangeChoiceBox.getItems().addAll(RECORD_RANGE_NAMES);
+            recordRangeChoiceBox.setValue(RECORD_RANGE_NAMES[RECORD_RANGE_NAMES.length - 1]);
+            recordRangeChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> {
+                int days = RECORD_RANGE_DAYS[Math.max(0, recordRangeChoiceBox.getItems().indexOf(newValue))];
+                recordTableModel.setFilter(days == 0 ? RecordQuery.all()
+                        : RecordQuery.since(LocalDate.now().minusDays(days - 1).atStartOfDay()));
+            });
         }
         
         // 设置表格数据
+        reminderRecordsTable.setItems(recordTableModel);
         refreshReminderRecordsTable();
     }
     
@@ -121,9 +210,8 @@ public class ConfigurableMainWindowController implements Initializable {
             return;
         }
         
-        List<ReminderRecord> records = config.getReminderRecords();
-        ObservableList<ReminderRecord> data = FXCollections.observableArrayList(records);
-        reminderRecordsTable.setItems(data);
+        // 只追加新增的记录，清空或重新加载后才整体替换
+        recordTableModel.sync(config);
     }
     
     // 从配置加载设置到UI
@@ -228,14 +316,8 @@ public class ConfigurableMainWindowController implements Initializable {
             if (response == ButtonType.OK) {
                 config.clearReminderRecords();
                 
-                // 立即保存清空后的状态到文件
-                try {
-                    config.saveReminderRecords();
-                    System.out.println("提醒记录已清空并保存到文件");
-                } catch (Exception e) {
-                    System.err.println("保存清空后的提醒记录失败：" + e.getMessage());
-                    e.printStackTrace();
-                }
+                // 清空操作已提交到后台写入，不阻塞界面
+                System.out.println("提醒记录已清空");
                 
                 // 刷新表格显示
                 refreshReminderRecordsTable();
@@ -267,32 +349,14 @@ public class ConfigurableMainWindowController implements Initializable {
         flashCountLabel.setText(String.valueOf(count));
     }
     
-    // 根据颜色名称获取背景色CSS值
-    private String getBackgroundColorByColorName(String colorName) {
-        // 添加null检查，如果colorName为null，则返回默认的蓝色
-        if (colorName == null) {
-            return "#3498db";
-        }
-        
-        switch (colorName) {
-            case "绿色":
-                return "#2ecc71";
-            case "红色":
-                return "#e74c3c";
-            case "黄色":
-                return "#f1c40f";
-            case "蓝色":
-            default:
-                return "#3498db";
-        }
-    }
-    
     // 浏览声音文件
     private void browseSoundFile() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("选择提示音文件");
+        // 导入时只能解码WAV（以及Java Sound支持的其他格式）和MP3，没有OGG解码器；
+        // 选择其他文件时由导入器通过onFailed报告无法解码
         fileChooser.getExtensionFilters().addAll(
-                new FileChooser.ExtensionFilter("音频文件", "*.wav", "*.mp3", "*.ogg"),
+                new FileChooser.ExtensionFilter("音频文件", "*.wav", "*.mp3"),
                 new FileChooser.ExtensionFilter("所有文件", "*.*")
         );
         
@@ -300,10 +364,43 @@ public class ConfigurableMainWindowController implements Initializable {
         File selectedFile = fileChooser.showOpenDialog(stage);
         
         if (selectedFile != null) {
-            soundFilePath.setText(selectedFile.getAbsolutePath());
+            // 在后台解码并做响度归一化，完成后改用导入后的文件
+            // 导入期间文件路径仍是原来的值，禁止保存和恢复默认，避免与导入结果互相覆盖
+            setSoundImporting(true);
+            soundImportLabel.setText("正在导入：" + selectedFile.getName());
+            SoundImporter.getInstance().importSound(selectedFile, config.getConfigDirectory(), new SoundImporter.ImportListener() {
+                @Override
+                public void onImported(Path importedFile, double measuredLoudness, double appliedGainDb) {
+                    Platform.runLater(() -> {
+                        setSoundImporting(false);
+                        soundImportLabel.setText("");
+                        soundFilePath.setText(importedFile.toString());
+                    });
+                }
+                
+                @Override
+                public void onFailed(Exception error) {
+                    Platform.runLater(() -> {
+                        setSoundImporting(false);
+                        soundImportLabel.setText("");
+                        Alert alert = new Alert(Alert.AlertType.ERROR);
+                        alert.setTitle("导入失败");
+                        alert.setHeaderText(null);
+                        alert.setContentText("无法导入该提示音文件：" + error.getMessage());
+                        alert.showAndWait();
+                    });
+                }
+            });
         }
     }
     
+    // 切换提示音导入状态下相关按钮的可用性
+    private void setSoundImporting(boolean importing) {
+        browseSoundButton.setDisable(importing);
+        restoreDefaultSoundButton.setDisable(importing);
+        saveConfigButton.setDisable(importing);
+    }
+    
     // 恢复默认提示音
     private void restoreDefaultSound() {
         soundFilePath.setText(Configuration.DEFAULT_SOUND_FILE);
@@ -378,15 +475,16 @@ public class ConfigurableMainWindowController implements Initializable {
         config.setSoundEnabled(soundEnabled);
         config.setFlashEnabled(flashEnabled);
         
-        // 记录当前提醒的开始时间
-        startTimeMillis = System.currentTimeMillis();
-        nextReminderMillis = startTimeMillis + interval * 60 * 1000;
+        // 记录当前提醒的开始时间，计时使用单调时钟
+        reminderClock = new ReminderClock(interval * 60 * 1000L, config.getCatchUpPolicy());
+        reminderClock.start();
         currentReminderStartTime = LocalDateTime.now();
         
         // 启动倒计时
         startCountdown();
         
         isReminderRunning = true;
+        IdleDetector.getInstance().addListener(idleListener);
         startButton.setDisable(true);
         stopButton.setDisable(false);
         System.out.println("开始提醒，间隔：" + interval + "分钟");
@@ -394,19 +492,31 @@ public class ConfigurableMainWindowController implements Initializable {
     
     // 启动倒计时
     private void startCountdown() {
-        if (timer != null) {
-            timer.cancel();
+        if (countdownTask != null) {
+            countdownTask.cancel();
         }
         
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    updateCountdown();
-                });
-            }
-        }, 0, 1000); // 每秒更新一次
+        if (!windowVisible) {
+            // 窗口不可见时没有必要逐秒刷新，只在提醒到期时唤醒；
+            // 间隔过长会被时钟当作休眠，因此从上次检查算起最多等待一个最大检查间隔
+            countdownTask = ReminderScheduler.getInstance().schedule(hiddenCountdownTick, reminderClock.nextCheckDelayMillis());
+            return;
+        }
+        
+        // 首次刷新对齐到剩余时间的整秒（粗略模式为整分钟）边界，之后按周期更新
+        countdownRenderer.setCoarse(config.isCoarseCountdown());
+        long tickMillis = countdownRenderer.getTickMillis();
+        countdownTask = ReminderScheduler.getInstance().scheduleRepeating(countdownTick,
+                reminderClock.getRemainingMillis() % tickMillis, tickMillis);
+    }
+    
+    // 窗口隐藏期间的检查
+    private void onHiddenCountdownDue() {
+        updateCountdown();
+        // 尚未到期时，按新的剩余时间继续等待
+        if (isReminderRunning && !windowVisible) {
+            startCountdown();
+        }
     }
     
     // 更新倒计时显示
@@ -418,21 +528,19 @@ public class ConfigurableMainWindowController implements Initializable {
             return;
         }
         
-        long currentTime = System.currentTimeMillis();
-        long remainingTime = nextReminderMillis - currentTime;
-        
-        if (remainingTime <= 0) {
+        if (reminderClock.poll()) {
             // 时间到，触发提醒
             triggerReminder();
+            System.out.println("提醒时钟统计：" + reminderClock.describeJitter());
+            System.out.println(String.format("调度线程唤醒：%.1f次/小时", ReminderScheduler.getInstance().getWakeupsPerHour()));
             
             // 提醒后自动停止，不再自动开始下一轮
             stopReminder();
         } else {
-            // 计算剩余时间
-            long minutes = remainingTime / (60 * 1000);
-            long seconds = (remainingTime % (60 * 1000)) / 1000;
-            
-            countdownLabel.setText(String.format("距离下次提醒还有：%d分%d秒", minutes, seconds));
+            // 显示的数值有变化时才更新标签
+            if (countdownRenderer.update(reminderClock.getRemainingMillis())) {
+                countdownLabel.setText(countdownRenderer.getText());
+            }
         }
     }
     
@@ -448,19 +556,10 @@ public class ConfigurableMainWindowController implements Initializable {
         // 在提醒触发时创建并保存记录
         if (currentReminderStartTime != null) {
             LocalDateTime endTime = LocalDateTime.now();
-            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime);
+            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime, ReminderRecord.FLAG_TRIGGERED);
             config.addReminderRecord(record);
             System.out.println("提醒记录已添加：" + record.getStartTimeString() + " - " + record.getEndTimeString());
             
-            // 立即保存记录到文件，避免数据丢失
-            try {
-                config.saveReminderRecords();
-                System.out.println("提醒记录已保存到文件");
-            } catch (Exception e) {
-                System.err.println("保存提醒记录失败：" + e.getMessage());
-                e.printStackTrace();
-            }
-            
             // 刷新表格显示
             refreshReminderRecordsTable();
         }
@@ -484,12 +583,57 @@ public class ConfigurableMainWindowController implements Initializable {
         }
     }
     
+    // 用户离开：这段久坐在离开前最后一次输入时结束，暂停倒计时
+    private void onUserAway(long idleMillis) {
+        if (!isReminderRunning || userAway) {
+            return;
+        }
+        userAway = true;
+        if (countdownTask != null) {
+            countdownTask.cancel();
+            countdownTask = null;
+        }
+        pausedRemainingMillis = Math.min(reminderClock.getIntervalMillis(), reminderClock.getRemainingMillis() + idleMillis);
+        
+        if (currentReminderStartTime != null) {
+            LocalDateTime lastInputTime = LocalDateTime.now().minus(Duration.ofMillis(idleMillis));
+            if (lastInputTime.isBefore(currentReminderStartTime)) {
+                lastInputTime = currentReminderStartTime;
+            }
+            ReminderRecord record = new ReminderRecord(currentReminderStartTime, lastInputTime, ReminderRecord.FLAG_IDLE);
+            config.addReminderRecord(record);
+            System.out.println("用户离开，提醒记录已添加：" + record.getStartTimeString() + " - " + record.getEndTimeString());
+            refreshReminderRecordsTable();
+            currentReminderStartTime = null;
+        }
+        
+        if (countdownLabel != null) {
+            countdownLabel.setText("距离下次提醒还有：已离开，暂停计时");
+        }
+        countdownRenderer.reset();
+    }
+    
+    // 用户回来：开始新的一段久坐，按配置继续剩余时间或重新计时
+    private void onUserReturn() {
+        if (!isReminderRunning || !userAway) {
+            return;
+        }
+        userAway = false;
+        long interval = reminderClock.getIntervalMillis();
+        reminderClock = new ReminderClock(interval, config.getCatchUpPolicy());
+        reminderClock.start(config.getIdleAction() == IdleDetector.IdleAction.PAUSE ? pausedRemainingMillis : interval);
+        currentReminderStartTime = LocalDateTime.now();
+        startCountdown();
+    }
+    
     // 停止提醒
     private void stopReminder() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (countdownTask != null) {
+            countdownTask.cancel();
+            countdownTask = null;
         }
+        IdleDetector.getInstance().removeListener(idleListener);
+        userAway = false;
         
         isReminderRunning = false;
         startButton.setDisable(false);
@@ -497,23 +641,15 @@ public class ConfigurableMainWindowController implements Initializable {
         if (countdownLabel != null) {
             countdownLabel.setText("距离下次提醒还有：未开始");
         }
+        countdownRenderer.reset(); // 标签已被覆盖，下次开始时重新生成文字
         
         // 记录本次提醒结束时间
         if (currentReminderStartTime != null) {
             LocalDateTime endTime = LocalDateTime.now();
-            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime);
+            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime, ReminderRecord.FLAG_STOPPED);
             config.addReminderRecord(record);
             currentReminderStartTime = null;
             
-            // 立即保存记录到文件
-            try {
-                config.saveReminderRecords();
-                System.out.println("提醒记录已在停止时保存到文件");
-            } catch (Exception e) {
-                System.err.println("保存提醒记录失败：" + e.getMessage());
-                e.printStackTrace();
-            }
-            
             // 添加记录后刷新表格显示
             refreshReminderRecordsTable();
         }
@@ -583,55 +719,7 @@ public class ConfigurableMainWindowController implements Initializable {
     
     // 显示测试提醒弹窗
     private void showTestReminderPopup(String reminderText, int durationSeconds) {
-        Stage popupStage = new Stage();
-        popupStage.initStyle(StageStyle.UNDECORATED);
-        popupStage.initOwner(((Stage) startButton.getScene().getWindow()));
-        
-        // 创建弹窗内容
-        VBox content = new VBox(10);
-        
-        // 获取配置的弹窗颜色
-        String popupColor = config.getPopupColor();
-        String backgroundColor = getBackgroundColorByColorName(popupColor);
-        
-        content.setStyle("-fx-background-color: " + backgroundColor + "; -fx-padding: 20; -fx-background-radius: 10; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.3), 10, 0, 0, 0);");
-        content.setPrefWidth(300);
-        
-        // 添加图标
-        ImageView icon = new ImageView();
-        icon.setFitWidth(100);
-        icon.setFitHeight(80);
-        icon.setStyle("-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.2), 5, 0, 0, 0);");
-        // 尝试加载图标，如果没有则使用默认样式
-        try {
-            InputStream iconStream = getClass().getResourceAsStream("/images/reminder_icon.png");
-            if (iconStream != null) {
-                icon.setImage(new Image(iconStream));
-            }
-        } catch (Exception e) {
-            System.out.println("无法加载图标");
-        }
-        
-        // 添加文本
-        Label textLabel = new Label(reminderText);
-        textLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px; -fx-wrap-text: true;");
-        textLabel.setMaxWidth(Double.MAX_VALUE);
-        
-        // 添加到内容容器
-        content.getChildren().addAll(icon, textLabel);
-        
-        // 创建场景并显示
-        popupStage.setScene(new javafx.scene.Scene(content));
-        popupStage.show();
-        
-        // 设置自动关闭
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(popupStage::close);
-            }
-        }, durationSeconds * 1000);
+        PopupManager.getInstance().showTemporary(reminderText, durationSeconds);
     }
     
     // 重启提醒（应用新配置）
@@ -5,8 +5,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 public class Configuration {
     // 默认配置
@@ -19,10 +21,20 @@ public class Configuration {
     private static final int DEFAULT_POPUP_DURATION = 4; // 默认4秒
     private static final int DEFAULT_FLASH_COUNT = 4; // 默认4次
     private static final String DEFAULT_POPUP_COLOR = "蓝色";
-    
-    // 配置文件路径 - 使用用户主目录下的配置文件
-    private static final String CONFIG_DIR = System.getProperty("user.home") + File.separator + ".sedentary_reminder";
-    private static final String CONFIG_FILE = CONFIG_DIR + File.separator + "config.properties";
+    private static final int DEFAULT_RECORD_RETENTION_MONTHS = 0; // 默认永久保留
+    private static final PersistenceService.FsyncPolicy DEFAULT_FSYNC_POLICY = PersistenceService.FsyncPolicy.BATCH;
+    private static final boolean DEFAULT_REDUCED_MOTION = false;
+    private static final boolean DEFAULT_COARSE_COUNTDOWN = false;
+    private static final int DEFAULT_IDLE_THRESHOLD_MINUTES = 5; // 0表示不检测用户离开
+    private static final IdleDetector.IdleAction DEFAULT_IDLE_ACTION = IdleDetector.IdleAction.RESET;
+    public static final long SHUTDOWN_FLUSH_TIMEOUT_MILLIS = 5000; // 退出时等待后台写入完成的最长时间
+    private static final ReminderClock.CatchUpPolicy DEFAULT_CATCH_UP_POLICY = ReminderClock.CatchUpPolicy.FIRE_ONCE;
+    
+    // 配置文件路径 - 默认使用用户主目录下的配置文件
+    public static final String DEFAULT_CONFIG_DIR = System.getProperty("user.home") + File.separator + ".sedentary_reminder";
+    private static final String LEGACY_RECORDS_LOG_FILE = "reminder_records.log";
+    private final String configDirectory;
+    private final String configFilePath;
     
     // 配置项
     private int reminderInterval; // 提醒间隔（分钟）
@@ -34,18 +46,48 @@ public class Configuration {
     private int popupDuration;     // 弹窗持续时间（秒）
     private int flashCount;        // 屏幕闪烁次数
     private List<String> flashEdges; // 闪烁边缘
-    private List<ReminderRecord> reminderRecords; // 提醒记录
+    private int recordRetentionMonths; // 提醒记录保留月数，0表示永久保留
+    private PersistenceService.FsyncPolicy fsyncPolicy; // 后台写入的刷盘策略
+    private int soundCacheMegabytes; // 解码后音频缓存的容量（MB）
+    private boolean reducedMotion; // 是否减少弹窗动画
+    private boolean coarseCountdown; // 倒计时是否只精确到分钟
+    private int idleThresholdMinutes; // 无输入超过该分钟数视为用户离开
+    private IdleDetector.IdleAction idleAction; // 用户离开后对计时的处理方式
+    private volatile SegmentedRecordStore recordStore; // 按月分段的提醒记录库
+    private volatile ActivityStatistics statistics; // 增量维护的活动统计
+    // 内存中的提醒记录视图和尚未写入记录库的改动，由recordLock保护
+    private final Object recordLock = new Object();
+    private final RecordColumns reminderRecords = new RecordColumns();
+    private final List<ReminderRecord> pendingRecords = new ArrayList<>();
+    private boolean pendingClear;
+    private int recordGeneration; // 记录视图被清空或重新加载时加一，供增量读取方判断是否需要重新加载
+    private long recordViewStartEpochSecond = Long.MIN_VALUE; // 记录视图从这一时刻开始，更早的记录只在记录库中
     private String popupColor; // 弹窗颜色
+    private ReminderClock.CatchUpPolicy catchUpPolicy; // 休眠唤醒后错过提醒的补偿策略
+    private List<ReminderSchedule> extraSchedules; // 额外的提醒计划（远眺、喝水等）
     
     private static Configuration instance;
     
     private Configuration() {
-        reminderRecords = new ArrayList<>();
-        loadConfiguration();
+        this(DEFAULT_CONFIG_DIR);
         // 注册关闭钩子，在程序退出时自动保存配置和提醒记录
         addShutdownHook();
     }
     
+    private Configuration(String configDirectory) {
+        this.configDirectory = configDirectory;
+        this.configFilePath = configDirectory + File.separator + "config.properties";
+        loadConfiguration();
+    }
+    
+    /**
+     * 为指定配置目录创建独立的配置实例（守护进程模式下每个用户一个），
+     * 不注册关闭钩子，由调用方负责在退出前保存
+     */
+    public static Configuration forDirectory(String configDirectory) {
+        return new Configuration(configDirectory);
+    }
+    
     /**
      * 添加JVM关闭钩子，在程序退出时自动保存配置和提醒记录
      */
@@ -54,7 +96,11 @@ public class Configuration {
             try {
                 saveConfiguration();
                 saveReminderRecords();
-                System.out.println("程序退出时自动保存配置和提醒记录成功");
+                if (PersistenceService.getInstance().flush(SHUTDOWN_FLUSH_TIMEOUT_MILLIS)) {
+                    System.out.println("程序退出时自动保存配置和提醒记录成功");
+                } else {
+                    System.err.println("程序退出时等待保存超时，部分数据可能未写入");
+                }
             } catch (Exception e) {
                 System.err.println("程序退出时保存配置和提醒记录失败：" + e.getMessage());
                 e.printStackTrace();
@@ -74,12 +120,12 @@ public class Configuration {
         Properties properties = new Properties();
         try {
             // 确保配置目录存在
-            Path configDirPath = Paths.get(CONFIG_DIR);
+            Path configDirPath = Paths.get(configDirectory);
             if (!Files.exists(configDirPath)) {
                 Files.createDirectories(configDirPath);
             }
             
-            File configFile = new File(CONFIG_FILE);
+            File configFile = new File(configFilePath);
             if (configFile.exists()) {
                 try (InputStream input = new FileInputStream(configFile)) {
                     properties.load(input);
@@ -92,6 +138,23 @@ public class Configuration {
                     popupDuration = Integer.parseInt(properties.getProperty("popup.duration", String.valueOf(DEFAULT_POPUP_DURATION)));
                     flashCount = Integer.parseInt(properties.getProperty("flash.count", String.valueOf(DEFAULT_FLASH_COUNT)));
                     popupColor = properties.getProperty("popup.color", DEFAULT_POPUP_COLOR);
+                    catchUpPolicy = ReminderClock.CatchUpPolicy.fromString(
+                            properties.getProperty("reminder.catchup"), DEFAULT_CATCH_UP_POLICY);
+                    extraSchedules = loadSchedules(properties);
+                    recordRetentionMonths = Integer.parseInt(properties.getProperty("records.retention.months",
+                            String.valueOf(DEFAULT_RECORD_RETENTION_MONTHS)));
+                    fsyncPolicy = PersistenceService.FsyncPolicy.fromString(
+                            properties.getProperty("persistence.fsync"), DEFAULT_FSYNC_POLICY);
+                    soundCacheMegabytes = Integer.parseInt(properties.getProperty("sound.cache.mb",
+                            String.valueOf(AudioCache.DEFAULT_BUDGET_MB)));
+                    reducedMotion = Boolean.parseBoolean(properties.getProperty("ui.reduced.motion",
+                            String.valueOf(DEFAULT_REDUCED_MOTION)));
+                    coarseCountdown = Boolean.parseBoolean(properties.getProperty("ui.countdown.coarse",
+                            String.valueOf(DEFAULT_COARSE_COUNTDOWN)));
+                    idleThresholdMinutes = Integer.parseInt(properties.getProperty("idle.threshold.minutes",
+                            String.valueOf(DEFAULT_IDLE_THRESHOLD_MINUTES)));
+                    idleAction = IdleDetector.IdleAction.fromString(
+                            properties.getProperty("idle.action"), DEFAULT_IDLE_ACTION);
                     
                     // 加载闪烁边缘配置
                     String edges = properties.getProperty("flash.edges", "top");
@@ -112,6 +175,16 @@ public class Configuration {
                 flashCount = DEFAULT_FLASH_COUNT;
                 flashEdges = new ArrayList<>();
                 flashEdges.add("top");
+                popupColor = DEFAULT_POPUP_COLOR;
+                catchUpPolicy = DEFAULT_CATCH_UP_POLICY;
+                extraSchedules = new ArrayList<>();
+                recordRetentionMonths = DEFAULT_RECORD_RETENTION_MONTHS;
+                fsyncPolicy = DEFAULT_FSYNC_POLICY;
+                soundCacheMegabytes = AudioCache.DEFAULT_BUDGET_MB;
+                reducedMotion = DEFAULT_REDUCED_MOTION;
+                coarseCountdown = DEFAULT_COARSE_COUNTDOWN;
+                idleThresholdMinutes = DEFAULT_IDLE_THRESHOLD_MINUTES;
+                idleAction = DEFAULT_IDLE_ACTION;
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -127,21 +200,44 @@ public class Configuration {
             flashEdges = new ArrayList<>();
             flashEdges.add("top");
             popupColor = DEFAULT_POPUP_COLOR;
+            catchUpPolicy = DEFAULT_CATCH_UP_POLICY;
+            extraSchedules = new ArrayList<>();
+            recordRetentionMonths = DEFAULT_RECORD_RETENTION_MONTHS;
+            fsyncPolicy = DEFAULT_FSYNC_POLICY;
+            soundCacheMegabytes = AudioCache.DEFAULT_BUDGET_MB;
+            reducedMotion = DEFAULT_REDUCED_MOTION;
+            coarseCountdown = DEFAULT_COARSE_COUNTDOWN;
+            idleThresholdMinutes = DEFAULT_IDLE_THRESHOLD_MINUTES;
+            idleAction = DEFAULT_IDLE_ACTION;
         }
         
         // 加载提醒记录
         loadReminderRecords();
     }
     
-    // 保存配置
+    // 加载额外的提醒计划，格式为schedule.N.name/interval/text/channels
+    private List<ReminderSchedule> loadSchedules(Properties properties) {
+        List<ReminderSchedule> schedules = new ArrayList<>();
+        int count = Integer.parseInt(properties.getProperty("schedule.count", "0"));
+        for (int i = 0; i < count; i++) {
+            String prefix = "schedule." + i + ".";
+            try {
+                schedules.add(ReminderSchedule.ofMinutes(
+                        properties.getProperty(prefix + "name"),
+                        Integer.parseInt(properties.getProperty(prefix + "interval")),
+                        properties.getProperty(prefix + "text", DEFAULT_REMINDER_TEXT),
+                        ReminderChannel.parse(properties.getProperty(prefix + "channels", "popup")))
+                        .withSound(properties.getProperty(prefix + "sound")));
+            } catch (RuntimeException e) {
+                System.err.println("忽略无效的提醒计划配置" + prefix + "：" + e.getMessage());
+            }
+        }
+        return schedules;
+    }
+    
+    // 保存配置：在调用线程生成文件内容，由后台线程原子地写入磁盘
     public void saveConfiguration() {
         try {
-            // 确保配置目录存在
-            Path configDirPath = Paths.get(CONFIG_DIR);
-            if (!Files.exists(configDirPath)) {
-                Files.createDirectories(configDirPath);
-            }
-            
             Properties properties = new Properties();
             properties.setProperty("reminder.interval", String.valueOf(reminderInterval));
             properties.setProperty("reminder.text", reminderText);
@@ -152,6 +248,14 @@ public class Configuration {
             properties.setProperty("popup.duration", String.valueOf(popupDuration));
             properties.setProperty("flash.count", String.valueOf(flashCount));
             properties.setProperty("popup.color", popupColor);
+            properties.setProperty("reminder.catchup", catchUpPolicy.name());
+            properties.setProperty("records.retention.months", String.valueOf(recordRetentionMonths));
+            properties.setProperty("persistence.fsync", fsyncPolicy.name());
+            properties.setProperty("sound.cache.mb", String.valueOf(soundCacheMegabytes));
+            properties.setProperty("ui.reduced.motion", String.valueOf(reducedMotion));
+            properties.setProperty("ui.countdown.coarse", String.valueOf(coarseCountdown));
+            properties.setProperty("idle.threshold.minutes", String.valueOf(idleThresholdMinutes));
+            properties.setProperty("idle.action", idleAction.name());
             
             // 保存闪烁边缘配置
             StringBuilder edgesBuilder = new StringBuilder();
@@ -163,87 +267,211 @@ public class Configuration {
             }
             properties.setProperty("flash.edges", edgesBuilder.toString());
             
-            try (OutputStream output = new FileOutputStream(CONFIG_FILE)) {
-                properties.store(output, "久坐小管家配置");
+            // 保存额外的提醒计划
+            properties.setProperty("schedule.count", String.valueOf(extraSchedules.size()));
+            for (int i = 0; i < extraSchedules.size(); i++) {
+                ReminderSchedule schedule = extraSchedules.get(i);
+                String prefix = "schedule." + i + ".";
+                properties.setProperty(prefix + "name", schedule.getName());
+                properties.setProperty(prefix + "interval", String.valueOf(schedule.getIntervalMillis() / 60000));
+                properties.setProperty(prefix + "text", schedule.getText() != null ? schedule.getText() : "");
+                properties.setProperty(prefix + "channels", ReminderChannel.format(schedule.getChannels()));
+                if (schedule.getSound() != null) {
+                    properties.setProperty(prefix + "sound", schedule.getSound());
+                }
             }
+            
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            properties.store(output, "久坐小管家配置");
+            byte[] data = output.toByteArray();
+            Path configPath = Paths.get(configFilePath);
+            PersistenceService.getInstance().submit("config:" + configFilePath, fsyncPolicy,
+                    fsync -> PersistenceService.writeAtomically(configPath, data, fsync));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
-    // 保存提醒记录
+    // 保存提醒记录：把尚未写入的改动交给后台线程写入记录库并刷盘
     public void saveReminderRecords() {
+        PersistenceService.getInstance().submit("records:" + configDirectory, fsyncPolicy, this::flushRecords);
+    }
+    
+    // 在后台线程中把积攒的改动写入记录库
+    private void flushRecords(boolean fsync) throws IOException {
+        List<ReminderRecord> batch;
+        boolean clear;
+        synchronized (recordLock) {
+            batch = new ArrayList<>(pendingRecords);
+            pendingRecords.clear();
+            clear = pendingClear;
+            pendingClear = false;
+        }
+        SegmentedRecordStore store = recordStore;
+        if (store == null) {
+            return;
+        }
+        int written = 0;
         try {
-            // 确保配置目录存在
-            Path configDirPath = Paths.get(CONFIG_DIR);
-            if (!Files.exists(configDirPath)) {
-                Files.createDirectories(configDirPath);
-                System.out.println("配置目录已创建：" + CONFIG_DIR);
+            if (clear) {
+                store.clear();
+                clear = false;
             }
-            
-            // 将提醒记录保存到文件（即使为空）
-            String recordsFilePath = CONFIG_DIR + File.separator + "reminder_records.dat";
-            
-            // 检查记录列表是否为空
-            if (reminderRecords == null || reminderRecords.isEmpty()) {
-                // 如果记录为空，删除现有文件或创建一个空文件来表示清空状态
-                File recordsFile = new File(recordsFilePath);
-                if (recordsFile.exists()) {
-                    recordsFile.delete();
-                    System.out.println("提醒记录文件已删除（因为记录为空）");
-                } else {
-                    // 创建一个新的空文件
-                    recordsFile.createNewFile();
-                    System.out.println("已创建空的提醒记录文件");
-                }
-                return;
+            for (; written < batch.size(); written++) {
+                store.append(batch.get(written));
             }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(
-                    new FileOutputStream(recordsFilePath))) {
-                oos.writeObject(reminderRecords);
-                System.out.println("提醒记录保存成功，共" + reminderRecords.size() + "条记录，文件路径：" + recordsFilePath);
+            if (fsync) {
+                store.force();
             }
         } catch (IOException e) {
-            System.err.println("保存提醒记录失败：" + e.getMessage());
-            e.printStackTrace();
+            // 没写进去的改动放回队首，下次保存时重试；期间又被清空的记录不再需要
+            synchronized (recordLock) {
+                if (!pendingClear) {
+                    pendingRecords.addAll(0, batch.subList(written, batch.size()));
+                    pendingClear = clear;
+                }
+            }
+            throw e;
         }
     }
     
-    // 加载提醒记录
+    // 加载提醒记录：必要时迁移旧格式文件，然后打开按月分段的记录库
     private void loadReminderRecords() {
         try {
-            File recordsFile = new File(CONFIG_DIR + "/reminder_records.dat");
-            if (recordsFile.exists()) {
-                try (ObjectInputStream ois = new ObjectInputStream(
-                        new FileInputStream(recordsFile))) {
-                    reminderRecords = (List<ReminderRecord>) ois.readObject();
-                }
+            if (recordStore != null) {
+                // 重新加载前先写完旧记录库中尚未落盘的改动
+                PersistenceService.getInstance().flush(SHUTDOWN_FLUSH_TIMEOUT_MILLIS);
+                recordStore.close();
+            }
+            Path configDirPath = Paths.get(configDirectory);
+            Path legacyLogPath = configDirPath.resolve(LEGACY_RECORDS_LOG_FILE);
+            ReminderRecordMigrator.migrateIfNeeded(configDirPath, legacyLogPath);
+            recordStore = SegmentedRecordStore.open(configDirPath.resolve(SegmentedRecordStore.DIRECTORY_NAME),
+                    recordRetentionMonths, legacyLogPath);
+            synchronized (recordLock) {
+                reminderRecords.clear();
+                reminderRecords.addAll(recordStore.getActiveRecords());
+                recordViewStartEpochSecond = recordStore.getActiveMonthStartEpochSecond();
+                recordGeneration++;
             }
-        } catch (IOException | ClassNotFoundException e) {
-            // 如果加载失败，使用空列表
-            reminderRecords = new ArrayList<>();
+        } catch (IOException e) {
+            // 如果加载失败，不记录历史
+            recordStore = null;
+            synchronized (recordLock) {
+                recordViewStartEpochSecond = Long.MIN_VALUE;
+            }
+            e.printStackTrace();
+        }
+        
+        // 加载活动统计，只补算上次保存之后的记录
+        try {
+            statistics = ActivityStatistics.load(Paths.get(configDirectory, ActivityStatistics.FILE_NAME),
+                    recordStore, reminderInterval * 60L);
+        } catch (IOException e) {
+            statistics = new ActivityStatistics(reminderInterval * 60L);
             e.printStackTrace();
         }
     }
     
-    // 添加提醒记录
+    // 把活动统计交给后台线程保存，序列化在写入时进行
+    private void saveStatistics() {
+        ActivityStatistics current = statistics;
+        Path statisticsPath = Paths.get(configDirectory, ActivityStatistics.FILE_NAME);
+        PersistenceService.getInstance().submit("statistics:" + configDirectory, fsyncPolicy,
+                fsync -> PersistenceService.writeAtomically(statisticsPath, current.toBytes(), fsync));
+    }
+    
+    // 添加提醒记录，立即出现在内存视图中，并在后台追加写入当前月份的记录段
     public void addReminderRecord(ReminderRecord record) {
-        reminderRecords.add(record);
-        // 只保留最近100条记录
-        if (reminderRecords.size() > 100) {
-            reminderRecords.remove(0);
+        synchronized (recordLock) {
+            reminderRecords.add(record);
+            pendingRecords.add(record);
         }
+        statistics.add(record);
+        saveReminderRecords();
+        saveStatistics();
     }
     
-    // 获取所有提醒记录
+    // 获取记录视图中的提醒记录：启动时所在月份及之后添加的记录
     public List<ReminderRecord> getReminderRecords() {
-        return new ArrayList<>(reminderRecords);
+        synchronized (recordLock) {
+            return reminderRecords.toRecords();
+        }
+    }
+    
+    // 获取当前月份提醒记录的按列副本，供表格和统计使用
+    public RecordColumns getRecordColumns() {
+        synchronized (recordLock) {
+            return reminderRecords.copy();
+        }
+    }
+    
+    /**
+     * 增量读取记录视图：代数与generation相同时，把记录视图中第loaded条之后的新记录追加到target；
+     * 记录视图在此期间被清空或重新加载过时不修改target，调用方应使用返回的代数重新读取
+     * @param loaded 调用方已经读取过的记录条数
+     * @return 当前的记录视图代数
+     */
+    public int appendRecordsSince(int generation, int loaded, RecordColumns target) {
+        synchronized (recordLock) {
+            if (generation == recordGeneration) {
+                for (int i = loaded; i < reminderRecords.size(); i++) {
+                    target.add(reminderRecords.getStartEpochSecond(i), reminderRecords.getEndEpochSecond(i),
+                            reminderRecords.getFlags(i));
+                }
+            }
+            return recordGeneration;
+        }
+    }
+    
+    /**
+     * 记录视图的起始时间：更早的记录不在内存中，需要通过queryRecords读取；
+     * 跨月后新月份的记录仍留在视图中，起始时间只在重新加载时改变
+     */
+    public long getRecordViewStartEpochSecond() {
+        synchronized (recordLock) {
+            return recordViewStartEpochSecond;
+        }
+    }
+    
+    /**
+     * 按时间范围、星期和时段查询全部历史记录，返回惰性游标；
+     * 刚添加、尚未由后台线程写入记录库的记录不在结果中
+     */
+    public RecordCursor queryRecords(RecordQuery query) throws IOException {
+        SegmentedRecordStore store = recordStore;
+        if (store == null) {
+            throw new IOException("提醒记录库未能加载");
+        }
+        return store.query(query);
+    }
+    
+    // 获取提醒记录库，用于访问历史记录
+    public SegmentedRecordStore getRecordStore() {
+        return recordStore;
     }
     
     // 清空所有提醒记录
     public void clearReminderRecords() {
-        reminderRecords.clear();
+        synchronized (recordLock) {
+            reminderRecords.clear();
+            pendingRecords.clear();
+            pendingClear = true;
+            recordViewStartEpochSecond = Long.MIN_VALUE; // 历史记录也一并清空
+            recordGeneration++;
+        }
+        statistics.clear();
+        saveReminderRecords();
+        saveStatistics();
+    }
+    
+    // 获取活动统计
+    public ActivityStatistics getStatistics() {
+        return statistics;
+    }
+    
+    public String getConfigDirectory() {
+        return configDirectory;
     }
     
     // Getters and Setters
@@ -255,6 +483,9 @@ public class Configuration {
         // 验证时间范围：10分钟到2小时
         if (reminderInterval >= 10 && reminderInterval <= 120) {
             this.reminderInterval = reminderInterval;
+            if (statistics != null) {
+                statistics.setComplianceTargetSeconds(reminderInterval * 60L);
+            }
         }
     }
     
@@ -331,6 +562,111 @@ public class Configuration {
         this.popupColor = popupColor;
     }
     
+    public ReminderClock.CatchUpPolicy getCatchUpPolicy() {
+        return catchUpPolicy;
+    }
+    
+    public void setCatchUpPolicy(ReminderClock.CatchUpPolicy catchUpPolicy) {
+        if (catchUpPolicy != null) {
+            this.catchUpPolicy = catchUpPolicy;
+        }
+    }
+    
+    // 根据当前配置生成默认的久坐提醒计划
+    public ReminderSchedule getDefaultSchedule() {
+        Set<ReminderChannel> channels = EnumSet.noneOf(ReminderChannel.class);
+        if (popupEnabled) {
+            channels.add(ReminderChannel.POPUP);
+        }
+        if (soundEnabled) {
+            channels.add(ReminderChannel.SOUND);
+        }
+        if (flashEnabled) {
+            channels.add(ReminderChannel.FLASH);
+        }
+        return ReminderSchedule.ofMinutes(ReminderSchedule.DEFAULT_NAME, reminderInterval, reminderText, channels);
+    }
+    
+    public int getRecordRetentionMonths() {
+        return recordRetentionMonths;
+    }
+    
+    public void setRecordRetentionMonths(int recordRetentionMonths) {
+        // 0表示永久保留
+        if (recordRetentionMonths >= 0) {
+            this.recordRetentionMonths = recordRetentionMonths;
+            if (recordStore != null) {
+                recordStore.setRetentionMonths(recordRetentionMonths);
+            }
+        }
+    }
+    
+    public PersistenceService.FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+    
+    public void setFsyncPolicy(PersistenceService.FsyncPolicy fsyncPolicy) {
+        if (fsyncPolicy != null) {
+            this.fsyncPolicy = fsyncPolicy;
+        }
+    }
+    
+    public int getSoundCacheMegabytes() {
+        return soundCacheMegabytes;
+    }
+    
+    public void setSoundCacheMegabytes(int soundCacheMegabytes) {
+        if (soundCacheMegabytes >= 0) {
+            this.soundCacheMegabytes = soundCacheMegabytes;
+            AudioCache.getInstance().setBudgetBytes(soundCacheMegabytes * 1024L * 1024L);
+        }
+    }
+    
+    public boolean isReducedMotion() {
+        return reducedMotion;
+    }
+    
+    public void setReducedMotion(boolean reducedMotion) {
+        this.reducedMotion = reducedMotion;
+    }
+    
+    public boolean isCoarseCountdown() {
+        return coarseCountdown;
+    }
+    
+    public void setCoarseCountdown(boolean coarseCountdown) {
+        this.coarseCountdown = coarseCountdown;
+    }
+    
+    public int getIdleThresholdMinutes() {
+        return idleThresholdMinutes;
+    }
+    
+    public void setIdleThresholdMinutes(int idleThresholdMinutes) {
+        if (idleThresholdMinutes >= 0) {
+            this.idleThresholdMinutes = idleThresholdMinutes;
+            IdleDetector.getInstance().setThresholdMillis(idleThresholdMinutes * 60 * 1000L);
+        }
+    }
+    
+    public IdleDetector.IdleAction getIdleAction() {
+        return idleAction;
+    }
+    
+    public void setIdleAction(IdleDetector.IdleAction idleAction) {
+        if (idleAction != null) {
+            this.idleAction = idleAction;
+        }
+    }
+    
+    public List<ReminderSchedule> getExtraSchedules() {
+        return new ArrayList<>(extraSchedules);
+    }
+    
+    public void setExtraSchedules(List<ReminderSchedule> extraSchedules) {
+        this.extraSchedules = new ArrayList<>(extraSchedules);
+    }
+    
     public List<String> getFlashEdges() {
         return flashEdges;
     }
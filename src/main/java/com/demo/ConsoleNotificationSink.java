@@ -0,0 +1,19 @@
+package com.demo;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 将提醒输出到标准输出，主要用于调试和测试
+ */
+public class ConsoleNotificationSink implements NotificationSink {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public void deliver(UserSession session, ReminderSchedule schedule) {
+        String line = LocalDateTime.now().format(FORMATTER) + " [" + session.getUserId() + "] "
+                + schedule.getName() + "：" + schedule.getText();
+        // System.out本身是同步的，整行输出不会交错
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,69 @@
+package com.demo;
+
+/**
+ * 倒计时文字的生成器。
+ * 复用同一个StringBuilder拼接文字，不经过String.format和装箱；
+ * 显示的数值没有变化时直接跳过，不生成新字符串，也不触发Label的重新布局。
+ * 粗略模式只显示分钟，每分钟才变化一次。
+ */
+public class CountdownRenderer {
+    private static final String PREFIX = "距离下次提醒还有：";
+
+    private final StringBuilder builder = new StringBuilder(32);
+    private boolean coarse;
+    private long lastValue = Long.MIN_VALUE; // 上次显示的秒数或分钟数
+    private String text = "";
+
+    public CountdownRenderer() {
+        builder.append(PREFIX);
+    }
+
+    /**
+     * 按剩余时间更新文字
+     * @param remainingMillis 剩余时间（毫秒）
+     * @return 显示的文字是否有变化，没有变化时无需更新界面
+     */
+    public boolean update(long remainingMillis) {
+        long remaining = Math.max(0, remainingMillis);
+        // 精确模式按整秒向下取整，粗略模式按整分钟向上取整，避免还剩几十秒时显示0分钟
+        long value = coarse ? (remaining + 59999) / 60000 : remaining / 1000;
+        if (value == lastValue) {
+            return false;
+        }
+        lastValue = value;
+
+        builder.setLength(PREFIX.length());
+        if (coarse) {
+            builder.append(value).append("分钟");
+        } else {
+            builder.append(value / 60).append('分').append(value % 60).append('秒');
+        }
+        text = builder.toString();
+        return true;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // 下一次update必定生成新文字，例如标签被其他文字覆盖之后
+    public void reset() {
+        lastValue = Long.MIN_VALUE;
+    }
+
+    public boolean isCoarse() {
+        return coarse;
+    }
+
+    public void setCoarse(boolean coarse) {
+        if (this.coarse != coarse) {
+            this.coarse = coarse;
+            reset();
+        }
+    }
+
+    // 当前模式下的刷新周期（毫秒）
+    public long getTickMillis() {
+        return coarse ? 60000 : 1000;
+    }
+}
@@ -0,0 +1,94 @@
+package com.demo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 无界面守护进程入口，一个JVM为多个用户会话提供提醒服务。
+ * 用法：
+ *   java -cp sedentary-reminder.jar com.demo.DaemonMain [--sink stdout|file] [--user 用户=配置目录]... [--users-file 文件]
+ * users-file中每行为"用户 配置目录"，以#开头的行为注释。
+ * 未指定任何用户时，为当前用户使用默认配置目录。
+ */
+public class DaemonMain {
+    public static void main(String[] args) {
+        String sinkType = "file";
+        Map<String, String> users = new LinkedHashMap<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sink":
+                        sinkType = args[++i];
+                        break;
+                    case "--user":
+                        String[] parts = args[++i].split("=", 2);
+                        if (parts.length != 2) {
+                            throw new IllegalArgumentException("--user参数格式应为 用户=配置目录：" + args[i]);
+                        }
+                        users.put(parts[0], parts[1]);
+                        break;
+                    case "--users-file":
+                        loadUsersFile(args[++i], users);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知参数：" + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | IOException e) {
+            System.err.println("参数错误：" + e.getMessage());
+            System.err.println("用法：DaemonMain [--sink stdout|file] [--user 用户=配置目录]... [--users-file 文件]");
+            System.exit(1);
+            return;
+        }
+
+        if (users.isEmpty()) {
+            users.put(System.getProperty("user.name"), Configuration.DEFAULT_CONFIG_DIR);
+        }
+
+        NotificationSink sink = "stdout".equals(sinkType) ? new ConsoleNotificationSink() : new FileNotificationSink();
+        ReminderDaemon daemon = new ReminderDaemon(sink);
+        for (Map.Entry<String, String> user : users.entrySet()) {
+            try {
+                daemon.addUser(user.getKey(), user.getValue());
+            } catch (Exception e) {
+                System.err.println("加载用户" + user.getKey() + "失败：" + e.getMessage());
+            }
+        }
+        System.out.println("久坐提醒守护进程已启动，用户数：" + daemon.getUserCount());
+
+        // 退出时保存所有用户数据
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            System.out.println("守护进程正在退出，保存所有用户数据...");
+            daemon.shutdown();
+            stopped.countDown();
+        }));
+
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 读取用户列表文件
+    private static void loadUsersFile(String path, Map<String, String> users) throws IOException {
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("用户列表格式错误：" + line);
+            }
+            users.put(parts[0], parts[1]);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.demo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 将提醒追加写入每个用户配置目录下的notifications.log，
+ * 用户会话中的轻量客户端（或测试）读取该文件即可收到提醒
+ */
+public class FileNotificationSink implements NotificationSink {
+    public static final String FILE_NAME = "notifications.log";
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Override
+    public void deliver(UserSession session, ReminderSchedule schedule) {
+        Path file = Paths.get(session.getConfiguration().getConfigDirectory(), FILE_NAME);
+        String line = LocalDateTime.now().format(FORMATTER) + "\t" + schedule.getName() + "\t"
+                + schedule.getText() + System.lineSeparator();
+        try {
+            // 单次追加写入，同一用户的提醒不会交错
+            Files.write(file, line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("写入用户" + session.getUserId() + "的提醒文件失败：" + e.getMessage());
+        }
+    }
+}
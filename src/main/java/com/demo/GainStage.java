@@ -0,0 +1,100 @@
+package com.demo;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * 软件增益处理，在写入输出线路前直接修改16位PCM数据。
+ * 支持固定增益、淡入淡出和闪避（临时压低音量），增益变化按帧平滑过渡避免爆音；
+ * 所有处理都在传入的缓冲区上原地完成，不分配内存，与线路是否提供MASTER_GAIN控制无关。
+ */
+public class GainStage {
+    private int channels = 2;
+    private float sampleRate = 44100f;
+    private float gain;        // 当前线性增益
+    private float targetGain;  // 目标线性增益
+    private float step;        // 每帧增益变化量
+    private float baseGain = 1f; // 本次播放的音量
+    private float duckGain = 1f; // 闪避时的额外衰减
+    private boolean fadingOut;
+
+    // 开始一次新的播放，从静音淡入到指定增益
+    public void start(AudioFormat format, float gainDb, long fadeInMillis) {
+        channels = format.getChannels();
+        sampleRate = format.getFrameRate();
+        baseGain = dbToLinear(gainDb);
+        fadingOut = false;
+        gain = fadeInMillis > 0 ? 0f : baseGain * duckGain;
+        rampTo(baseGain * duckGain, fadeInMillis);
+    }
+
+    // 在指定时间内淡出到静音
+    public void fadeOut(long millis) {
+        if (fadingOut) {
+            return;
+        }
+        fadingOut = true;
+        rampTo(0f, millis);
+    }
+
+    /**
+     * 设置闪避衰减，正在播放的声音会平滑过渡到新的音量
+     * @param duckDb 0表示不闪避，负值表示压低的分贝数
+     */
+    public void setDuck(float duckDb, long rampMillis) {
+        duckGain = dbToLinear(duckDb);
+        if (!fadingOut) {
+            rampTo(baseGain * duckGain, rampMillis);
+        }
+    }
+
+    // 是否已经淡出到静音
+    public boolean isSilent() {
+        return fadingOut && gain == 0f;
+    }
+
+    // 原地处理16位有符号小端PCM数据
+    public void process(byte[] buffer, int offset, int length) {
+        int end = offset + length - length % (channels * 2);
+        float current = gain;
+        float target = targetGain;
+        float delta = step;
+        if (current == 1f && target == 1f) {
+            return; // 原音量直接跳过
+        }
+        for (int i = offset; i < end; ) {
+            if (current != target) {
+                current += delta;
+                if (delta > 0 ? current >= target : current <= target) {
+                    current = target;
+                }
+            }
+            for (int c = 0; c < channels; c++, i += 2) {
+                int sample = (short) ((buffer[i] & 0xFF) | (buffer[i + 1] << 8));
+                int scaled = (int) (sample * current);
+                if (scaled > Short.MAX_VALUE) {
+                    scaled = Short.MAX_VALUE;
+                } else if (scaled < Short.MIN_VALUE) {
+                    scaled = Short.MIN_VALUE;
+                }
+                buffer[i] = (byte) scaled;
+                buffer[i + 1] = (byte) (scaled >> 8);
+            }
+        }
+        gain = current;
+    }
+
+    private void rampTo(float target, long millis) {
+        targetGain = target;
+        long frames = (long) (sampleRate * millis / 1000);
+        if (frames <= 0) {
+            gain = target;
+            step = 0f;
+        } else {
+            step = (target - gain) / frames;
+        }
+    }
+
+    private static float dbToLinear(float db) {
+        return (float) Math.pow(10.0, db / 20.0);
+    }
+}
@@ -0,0 +1,213 @@
+package com.demo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 用户离开检测。
+ * 定期从ActivitySource读取空闲时长，空闲超过阈值时通知监听器用户已离开，之后有输入时通知用户已回来。
+ * 读取间隔自适应：用户在场时按距离阈值的剩余时间的一半等待，只有临近阈值时才频繁读取；
+ * 离开后从1秒开始逐步放宽，最多10秒读取一次。
+ * 读取失败时视为用户在场（离开期间失败则通知已回来），并逐步放宽间隔继续重试。
+ * 只有注册了监听器（即有计时在运行）时才会读取，读取任务由ReminderScheduler调度。
+ */
+public class IdleDetector {
+    private static final long MIN_POLL_MILLIS = 1000;
+    private static final long MAX_POLL_MILLIS = ReminderClock.MAX_CHECK_INTERVAL_MILLIS;
+    private static final long MAX_AWAY_POLL_MILLIS = 10 * 1000;
+
+    /**
+     * 用户离开后对计时的处理方式
+     */
+    public enum IdleAction {
+        PAUSE,  // 暂停计时，回来后继续剩余的时间
+        RESET;  // 离开视为已经休息，回来后重新开始计时
+
+        // 从配置字符串解析，无法识别时使用默认方式
+        public static IdleAction fromString(String value, IdleAction defaultAction) {
+            if (value == null) {
+                return defaultAction;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return defaultAction;
+            }
+        }
+    }
+
+    /**
+     * 离开状态变化的回调，在调度线程中调用，应当尽快返回（UI操作请转交给Platform.runLater）
+     */
+    public interface Listener {
+        /**
+         * 用户已离开
+         * @param idleMillis 检测到离开时已经空闲的时长（毫秒），最后一次输入发生在这么久之前
+         */
+        void onAway(long idleMillis);
+
+        /**
+         * 用户回来了
+         * @param awayMillis 从离开前最后一次输入到回来后第一次输入的时长（毫秒）
+         */
+        void onReturn(long awayMillis);
+    }
+
+    private static IdleDetector instance;
+
+    private final ActivitySource source;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private long thresholdMillis;
+    private ReminderScheduler.Task pollTask;
+    private long generation; // 每次重新开始时递增，已经开始执行的旧读取任务据此放弃
+    private boolean away;
+    private long lastInputNanos;    // 离开前最后一次输入的时间
+    private long awayPollMillis;    // 离开期间的读取间隔
+    private long failurePollMillis; // 读取失败后的重试间隔，0表示上次读取成功
+    private long pollCount;
+
+    public IdleDetector(ActivitySource source, long thresholdMillis) {
+        this.source = source;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public static synchronized IdleDetector getInstance() {
+        if (instance == null) {
+            ActivitySource source = ActivitySource.detect();
+            System.out.println("用户活动检测：" + (source != null ? source.getName() : "不支持"));
+            instance = new IdleDetector(source, Configuration.getInstance().getIdleThresholdMinutes() * 60 * 1000L);
+        }
+        return instance;
+    }
+
+    // 注册监听器，第一个监听器注册后开始检测
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        restart();
+    }
+
+    // 移除监听器，没有监听器时停止检测
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty()) {
+            restart();
+        }
+    }
+
+    // 设置空闲阈值，0表示不检测
+    public void setThresholdMillis(long thresholdMillis) {
+        synchronized (this) {
+            this.thresholdMillis = Math.max(0, thresholdMillis);
+        }
+        restart();
+    }
+
+    public synchronized long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public synchronized boolean isAway() {
+        return away;
+    }
+
+    // 启动以来读取数据源的次数
+    public synchronized long getPollCount() {
+        return pollCount;
+    }
+
+    // 取消当前的读取计划，需要检测时立即读取一次
+    private void restart() {
+        boolean wasAway;
+        synchronized (this) {
+            if (pollTask != null) {
+                pollTask.cancel();
+                pollTask = null;
+            }
+            wasAway = away;
+            long current = ++generation;
+            if (isEnabled()) {
+                pollTask = ReminderScheduler.getInstance().schedule(() -> poll(current), 0);
+                return;
+            }
+            away = false;
+        }
+        // 停止检测时仍处于离开状态，视为已经回来
+        if (wasAway) {
+            long awayMillis = (System.nanoTime() - lastInputNanos) / 1_000_000;
+            for (Listener listener : listeners) {
+                listener.onReturn(awayMillis);
+            }
+        }
+    }
+
+    private boolean isEnabled() {
+        return source != null && thresholdMillis > 0 && !listeners.isEmpty();
+    }
+
+    private void poll(long expectedGeneration) {
+        long idleMillis = source.getIdleMillis();
+        long now = System.nanoTime();
+        boolean wentAway = false;
+        boolean returned = false;
+        long awayMillis = 0;
+        synchronized (this) {
+            if (generation != expectedGeneration || !isEnabled()) {
+                return;
+            }
+            pollCount++;
+            long nextPollMillis;
+            if (idleMillis < 0) {
+                // 无法判断用户是否在场时按在场处理，不让计时一直停在离开状态
+                if (failurePollMillis == 0) {
+                    System.err.println("无法读取用户活动（" + source.getName() + "），稍后重试");
+                    failurePollMillis = MIN_POLL_MILLIS;
+                } else {
+                    failurePollMillis = Math.min(failurePollMillis * 2, MAX_POLL_MILLIS);
+                }
+                nextPollMillis = failurePollMillis;
+                if (away) {
+                    away = false;
+                    returned = true;
+                    awayMillis = (now - lastInputNanos) / 1_000_000;
+                }
+            } else if (!away) {
+                if (idleMillis >= thresholdMillis) {
+                    away = true;
+                    wentAway = true;
+                    lastInputNanos = now - idleMillis * 1_000_000;
+                    awayPollMillis = MIN_POLL_MILLIS;
+                    nextPollMillis = awayPollMillis;
+                } else {
+                    // 在此之前空闲时长不可能达到阈值，只需在剩余时间过半时再读取
+                    nextPollMillis = Math.max(MIN_POLL_MILLIS, Math.min(MAX_POLL_MILLIS, (thresholdMillis - idleMillis) / 2));
+                }
+            } else if (idleMillis < thresholdMillis) {
+                // 离开后有了新的输入
+                away = false;
+                returned = true;
+                awayMillis = (now - lastInputNanos) / 1_000_000 - idleMillis;
+                nextPollMillis = Math.max(MIN_POLL_MILLIS, Math.min(MAX_POLL_MILLIS, (thresholdMillis - idleMillis) / 2));
+            } else {
+                awayPollMillis = Math.min(awayPollMillis * 2, MAX_AWAY_POLL_MILLIS);
+                nextPollMillis = awayPollMillis;
+            }
+            if (idleMillis >= 0 && failurePollMillis != 0) {
+                System.out.println("已恢复读取用户活动（" + source.getName() + "）");
+                failurePollMillis = 0;
+            }
+            pollTask = ReminderScheduler.getInstance().schedule(() -> poll(expectedGeneration), nextPollMillis);
+        }
+
+        if (wentAway) {
+            System.out.println("检测到用户离开，已空闲" + idleMillis / 1000 + "秒");
+            for (Listener listener : listeners) {
+                listener.onAway(idleMillis);
+            }
+        } else if (returned) {
+            System.out.println("用户已回来，离开约" + awayMillis / 1000 + "秒");
+            for (Listener listener : listeners) {
+                listener.onReturn(awayMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.demo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 没有图形会话（或缺少libXss）时的Linux数据源：统计/proc/interrupts中键盘、鼠标、触摸板的中断次数。
+ * 中断计数在两次读取之间发生变化就认为有输入，不需要读取evdev设备的权限。
+ * 精度取决于读取频率，IdleDetector临近阈值时会加密读取。
+ */
+public class InterruptActivitySource implements ActivitySource {
+    private static final Path INTERRUPTS = Paths.get("/proc/interrupts");
+    // 专用输入设备的中断名称
+    private static final String[] INPUT_DEVICES = {"i8042", "keyboard", "mouse", "touchpad", "hid"};
+    // 没有专用中断时退而使用USB主控制器，其他USB设备也会计入，只会把离开误判为在场
+    private static final String[] USB_CONTROLLERS = {"xhci", "ehci", "ohci", "uhci"};
+
+    private final String[] devices;
+    private long lastCount = -1;
+    private long lastChangeNanos = System.nanoTime();
+
+    private InterruptActivitySource(String[] devices) {
+        this.devices = devices;
+    }
+
+    /**
+     * 检查/proc/interrupts中是否有可用的输入设备中断
+     * @return 数据源，无法读取或找不到输入设备时返回null
+     */
+    public static InterruptActivitySource open() {
+        try {
+            List<String> lines = Files.readAllLines(INTERRUPTS);
+            for (String[] devices : new String[][]{INPUT_DEVICES, USB_CONTROLLERS}) {
+                if (sum(lines, devices) >= 0) {
+                    return new InterruptActivitySource(devices);
+                }
+            }
+            System.out.println("/proc/interrupts中没有找到输入设备");
+        } catch (IOException e) {
+            System.err.println("读取/proc/interrupts失败：" + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized long getIdleMillis() {
+        long count;
+        try {
+            count = sum(Files.readAllLines(INTERRUPTS), devices);
+        } catch (IOException e) {
+            return -1;
+        }
+        if (count < 0) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        if (count != lastCount) {
+            lastCount = count;
+            lastChangeNanos = now;
+        }
+        return (now - lastChangeNanos) / 1_000_000;
+    }
+
+    @Override
+    public String getName() {
+        return "/proc/interrupts";
+    }
+
+    // 名称包含任一关键字的中断在所有CPU上的计数之和，没有匹配的中断时返回-1
+    private static long sum(List<String> lines, String[] devices) {
+        long total = -1;
+        for (int i = 1; i < lines.size(); i++) { // 第一行是CPU列表
+            String[] fields = lines.get(i).trim().split("\\s+");
+            long count = 0;
+            int field = 1;
+            while (field < fields.length && isDigits(fields[field])) {
+                count += Long.parseLong(fields[field]);
+                field++;
+            }
+            if (field == 1 || field >= fields.length) {
+                continue; // ERR、MIS等没有设备名的汇总行
+            }
+            String name = String.join(" ", List.of(fields).subList(field, fields.length)).toLowerCase(Locale.ROOT);
+            for (String device : devices) {
+                if (name.contains(device)) {
+                    total = Math.max(total, 0) + count;
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return !value.isEmpty();
+    }
+}
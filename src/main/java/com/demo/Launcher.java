@@ -2,12 +2,19 @@ package com.demo;
 
 import javafx.application.Application;
 
+import java.util.Arrays;
+
 /**
  * 启动器类，用于解决JavaFX运行时组件缺失的问题
  * 从JDK 11开始，JavaFX不再包含在JDK中，需要单独添加
+ * 以--daemon作为第一个参数时以无界面的守护进程模式运行
  */
 public class Launcher {
     public static void main(String[] args) {
+        if (args.length > 0 && "--daemon".equals(args[0])) {
+            DaemonMain.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
\ No newline at end of file
@@ -18,6 +18,13 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         try {
+            // 提前启动音频引擎，在后台打开输出线路，首次提醒时无需等待
+            AudioEngine.getInstance();
+            // 预先创建屏幕闪烁使用的窗口
+            ScreenFlasher.prepare();
+            // 预先构建提醒弹窗的场景
+            PopupManager.getInstance().prepare();
+            
             // 加载主界面FXML文件 - 使用ClassLoader确保跨平台兼容性
             ClassLoader classLoader = getClass().getClassLoader();
             URL fxmlUrl = classLoader.getResource("fxml/ConfigurableMainWindow.fxml");
@@ -50,6 +57,14 @@ public class Main extends Application {
                     System.err.println("停止提醒管理器时出错: " + e.getMessage());
                 }
                 
+                // halt不会执行关闭钩子，先把配置和记录交给后台写入并等待完成
+                Configuration config = Configuration.getInstance();
+                config.saveConfiguration();
+                config.saveReminderRecords();
+                if (!PersistenceService.getInstance().flush(Configuration.SHUTDOWN_FLUSH_TIMEOUT_MILLIS)) {
+                    System.err.println("等待保存配置和提醒记录超时");
+                }
+                
                 // 强制终止所有Java线程，确保JVM完全退出
                 System.out.println("所有服务已停止，强制终止JVM");
                 // 设置为立即退出，不等待任何清理工作
@@ -3,25 +3,13 @@ package com.demo;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.ImageView;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.VBox;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ResourceBundle;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class MainWindowController implements Initializable {
     // UI组件
@@ -38,9 +26,8 @@ public class MainWindowController implements Initializable {
     // 配置和状态
     private Configuration config;
     private boolean isReminderRunning = false;
-    private Timer timer;
-    private long startTimeMillis;
-    private long nextReminderMillis;
+    private ReminderScheduler.Task countdownTask;
+    private ReminderClock reminderClock;
     private LocalDateTime currentReminderStartTime;
     
     @Override
@@ -123,9 +110,9 @@ public class MainWindowController implements Initializable {
         // 更新配置
         config.setReminderInterval(interval);
         
-        // 记录开始时间
-        startTimeMillis = System.currentTimeMillis();
-        nextReminderMillis = startTimeMillis + interval * 60 * 1000;
+        // 记录开始时间，计时使用单调时钟
+        reminderClock = new ReminderClock(interval * 60 * 1000L, config.getCatchUpPolicy());
+        reminderClock.start();
         currentReminderStartTime = LocalDateTime.now();
         
         // 启动倒计时
@@ -141,18 +128,14 @@ public class MainWindowController implements Initializable {
     
     // 启动倒计时
     private void startCountdown() {
-        if (timer != null) {
-            timer.cancel();
+        if (countdownTask != null) {
+            countdownTask.cancel();
         }
         
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    updateCountdown();
-                });
-            }
+        countdownTask = ReminderScheduler.getInstance().scheduleRepeating(() -> {
+            Platform.runLater(() -> {
+                updateCountdown();
+            });
         }, 0, 1000); // 每秒更新一次
     }
     
@@ -162,14 +145,12 @@ public class MainWindowController implements Initializable {
             return;
         }
         
-        long currentTime = System.currentTimeMillis();
-        long remainingTime = nextReminderMillis - currentTime;
-        
-        if (remainingTime <= 0) {
+        if (reminderClock.poll()) {
             // 时间到，触发提醒
             triggerReminder();
         } else {
             // 计算剩余时间
+            long remainingTime = reminderClock.getRemainingMillis();
             long minutes = remainingTime / (60 * 1000);
             long seconds = (remainingTime % (60 * 1000)) / 1000;
             
@@ -207,9 +188,9 @@ public class MainWindowController implements Initializable {
     
     // 停止提醒
     private void stopReminder() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
+        if (countdownTask != null) {
+            countdownTask.cancel();
+            countdownTask = null;
         }
         
         isReminderRunning = false;
@@ -220,7 +201,7 @@ public class MainWindowController implements Initializable {
         // 记录本次提醒结束时间
         if (currentReminderStartTime != null) {
             LocalDateTime endTime = LocalDateTime.now();
-            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime);
+            ReminderRecord record = new ReminderRecord(currentReminderStartTime, endTime, ReminderRecord.FLAG_STOPPED);
             config.addReminderRecord(record);
             currentReminderStartTime = null;
         }
@@ -265,142 +246,6 @@ public class MainWindowController implements Initializable {
     
     // 显示提醒弹窗
     private void showReminderPopup(String reminderText, int durationSeconds) {
-        Stage popupStage = new Stage();
-        popupStage.initStyle(StageStyle.UNDECORATED);
-        popupStage.initOwner(((Stage) startButton.getScene().getWindow()));
-        
-        // 主容器
-        VBox container = new VBox(16);
-        container.setPadding(new Insets(24));
-        container.setAlignment(Pos.CENTER);
-        container.setStyle("-fx-background-color: -background-white; " +
-                          "-fx-background-radius: 16px; " +
-                          "-fx-border-radius: 16px; " +
-                          "-fx-border-color: -border-color; " +
-                          "-fx-border-width: 1; " +
-                          "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 20, 0, 0, 5);");
-        
-        // 图标
-        ImageView iconView = new ImageView();
-        iconView.setFitWidth(48);
-        iconView.setFitHeight(48);
-        try {
-            iconView.setImage(new javafx.scene.image.Image("/images/reminder-icon.svg"));
-        } catch (Exception e) {
-            System.out.println("无法加载图标: " + e.getMessage());
-        }
-        
-        // 标题
-        Label titleLabel = new Label("久坐提醒");
-        titleLabel.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
-        titleLabel.setStyle("-fx-text-fill: -main-color;");
-        
-        // 消息内容
-        Label messageLabel = new Label(reminderText);
-        messageLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: -text-primary; -fx-wrap-text: true;");
-        messageLabel.setMaxWidth(320);
-        messageLabel.setAlignment(Pos.CENTER);
-        messageLabel.setWrapText(true);
-        
-        // 关闭按钮
-        Button closeButton = new Button("关闭");
-        closeButton.setStyle("-fx-background-color: -main-color; " +
-                            "-fx-text-fill: white; " +
-                            "-fx-font-size: 14px; " +
-                            "-fx-padding: 10 24; " +
-                            "-fx-background-radius: 8px; " +
-                            "-fx-cursor: hand; " +
-                            "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.1), 4, 0, 0, 1);");
-        
-        // 按钮悬停效果
-        closeButton.setOnMouseEntered(e -> closeButton.setStyle(
-            closeButton.getStyle() + "-fx-background-color: derive(-main-color, 20%); " +
-            "-fx-scale-x: 1.03; -fx-scale-y: 1.03;"));
-        
-        closeButton.setOnMouseExited(e -> closeButton.setStyle(
-            closeButton.getStyle().replace("-fx-background-color: derive(-main-color, 20%); " +
-            "-fx-scale-x: 1.03; -fx-scale-y: 1.03;", "")));
-        
-        closeButton.setOnAction(e -> popupStage.close());
-        
-        // 按钮容器
-        HBox buttonBox = new HBox(12);
-        buttonBox.setAlignment(Pos.CENTER);
-        buttonBox.getChildren().add(closeButton);
-        
-        // 添加所有组件到容器
-        container.getChildren().addAll(iconView, titleLabel, messageLabel, buttonBox);
-        
-        // 创建场景
-        Scene scene = new Scene(container, 380, 280);
-        
-        // 加载CSS样式
-        scene.getStylesheets().add("/css/application.css");
-        
-        popupStage.setScene(scene);
-        popupStage.setAlwaysOnTop(true);
-        popupStage.setResizable(false);
-        
-        // 计算屏幕中心位置
-        javafx.geometry.Rectangle2D screenBounds = javafx.stage.Screen.getPrimary().getVisualBounds();
-        popupStage.setX((screenBounds.getWidth() - 380) / 2);
-        popupStage.setY((screenBounds.getHeight() - 280) / 2);
-        
-        // 显示窗口并添加淡入动画
-        popupStage.show();
-        
-        // 添加淡入动画
-        container.setOpacity(0);
-        container.setTranslateY(20);
-        
-        // 动画效果
-        new Thread(() -> {
-            try {
-                Thread.sleep(100); // 小延迟确保窗口已显示
-                Platform.runLater(() -> {
-                    // 添加平滑的淡入动画
-                    for (int i = 0; i <= 10; i++) {
-                        final int step = i;
-                        Platform.runLater(() -> {
-                            container.setOpacity(step * 0.1);
-                            container.setTranslateY(20 - (step * 2));
-                        });
-                        try {
-                            Thread.sleep(20);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
-        
-        // 设置自动关闭
-        Timer timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                Platform.runLater(() -> {
-                    if (popupStage.isShowing()) {
-                        // 添加淡出动画
-                        for (int i = 10; i >= 0; i--) {
-                            final int step = i;
-                            Platform.runLater(() -> {
-                                container.setOpacity(step * 0.1);
-                                container.setTranslateY(20 - (step * 2));
-                            });
-                            try {
-                                Thread.sleep(20);
-                            } catch (InterruptedException e) {
-                                Thread.currentThread().interrupt();
-                            }
-                        }
-                        popupStage.close();
-                    }
-                });
-            }
-        }, durationSeconds * 1000);
+        PopupManager.getInstance().showTemporary(reminderText, durationSeconds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.demo;
+
+/**
+ * 守护进程模式下的提醒投递接口，负责把提醒送达对应用户的会话
+ */
+public interface NotificationSink {
+    /**
+     * 投递一条提醒，可能被多个引擎线程并发调用
+     * @param session 目标用户会话
+     * @param schedule 触发的提醒计划
+     */
+    void deliver(UserSession session, ReminderSchedule schedule);
+
+    // 释放资源，默认无操作
+    default void close() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.demo;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * 音频引擎播放的PCM数据源，数据为16位有符号小端格式
+ */
+public interface PcmSource {
+    AudioFormat getFormat();
+
+    /**
+     * 读取最多length字节到buffer中
+     * @return 实际读取的字节数，没有更多数据时返回-1
+     */
+    int read(byte[] buffer, int offset, int length);
+}
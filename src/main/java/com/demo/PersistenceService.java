@@ -0,0 +1,247 @@
+package com.demo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 异步写回的持久化服务。
+ * 配置和提醒记录的保存操作提交到有界队列，由单个后台线程批量写入磁盘，
+ * 调用线程（通常是JavaFX应用线程）不再等待文件I/O。
+ * 同一个key的写入在真正执行前会被合并，只保留最新的一次，因此带key的写入数量受写入目标的个数限制，总是直接入队；
+ * 不带key的写入受队列容量限制，队列已满时调用线程等待后台线程取走一批，任何情况下都不在调用线程写入。
+ */
+public class PersistenceService {
+    private static final int MAX_PENDING = 256; // 队列容量
+    private static final long BATCH_LINGER_MILLIS = 200; // 非ALWAYS策略下攒批等待时间
+
+    /**
+     * 写入完成后何时调用fsync
+     */
+    public enum FsyncPolicy {
+        ALWAYS, // 每次写入都立即刷盘
+        BATCH,  // 攒批后写入并刷盘
+        NEVER;  // 只写入，由操作系统决定何时落盘
+
+        public static FsyncPolicy fromString(String value, FsyncPolicy defaultPolicy) {
+            if (value == null) {
+                return defaultPolicy;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return defaultPolicy;
+            }
+        }
+    }
+
+    /**
+     * 一次写入操作
+     */
+    public interface WriteTask {
+        void write(boolean fsync) throws IOException;
+    }
+
+    private static PersistenceService instance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // 按提交顺序排列的待写入操作，相同key的后续提交替换前一次的内容但保持原位置
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private final AtomicLong anonymousKeys = new AtomicLong();
+    private final Thread writer;
+    private boolean writing;
+    private long coalescedCount;
+    private long writtenCount;
+
+    private static final class Pending {
+        WriteTask task;
+        FsyncPolicy policy;
+
+        Pending(WriteTask task, FsyncPolicy policy) {
+            this.task = task;
+            this.policy = policy;
+        }
+    }
+
+    private PersistenceService() {
+        writer = new Thread(this::runWriter, "persistence-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static synchronized PersistenceService getInstance() {
+        if (instance == null) {
+            instance = new PersistenceService();
+        }
+        return instance;
+    }
+
+    /**
+     * 提交一次写入
+     * @param key 合并用的键，相同键尚未执行的写入会被替换；为null时不合并
+     */
+    public void submit(String key, FsyncPolicy policy, WriteTask task) {
+        boolean anonymous = key == null;
+        if (anonymous) {
+            key = "#" + anonymousKeys.incrementAndGet();
+        }
+        lock.lock();
+        try {
+            Pending existing = pending.get(key);
+            if (existing != null) {
+                existing.task = task;
+                existing.policy = policy;
+                coalescedCount++;
+                return;
+            }
+            // 不带key的写入没有合并，队列已满时等待后台线程取走当前的一批
+            while (anonymous && pending.size() >= MAX_PENDING && Thread.currentThread() != writer) {
+                notFull.awaitUninterruptibly();
+            }
+            pending.put(key, new Pending(task, policy));
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待所有已提交的写入完成，程序退出前调用
+     * @return 超时前是否全部写入完成
+     */
+    public boolean flush(long timeoutMillis) {
+        if (Thread.currentThread() == writer) {
+            return true;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            notEmpty.signal();
+            while (!pending.isEmpty() || writing) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 被合并掉的写入次数
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalescedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 实际执行的写入次数
+    public long getWrittenCount() {
+        lock.lock();
+        try {
+            return writtenCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>();
+        while (true) {
+            lock.lock();
+            try {
+                writing = false;
+                if (pending.isEmpty()) {
+                    idle.signalAll();
+                }
+                while (pending.isEmpty()) {
+                    notEmpty.await();
+                }
+                // 非ALWAYS策略下稍等片刻，让短时间内的重复保存合并成一次
+                if (pending.values().iterator().next().policy != FsyncPolicy.ALWAYS) {
+                    notEmpty.await(BATCH_LINGER_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                Iterator<Map.Entry<String, Pending>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next().getValue());
+                    iterator.remove();
+                }
+                notFull.signalAll();
+                writing = true;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            for (Pending item : batch) {
+                execute(item.task, item.policy != FsyncPolicy.NEVER);
+            }
+            lock.lock();
+            try {
+                writtenCount += batch.size();
+            } finally {
+                lock.unlock();
+            }
+            batch.clear();
+        }
+    }
+
+    private static void execute(WriteTask task, boolean fsync) {
+        try {
+            task.write(fsync);
+        } catch (Exception e) {
+            System.err.println("后台写入失败：" + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 原子地替换文件内容：先写入同目录下的临时文件，再重命名覆盖目标文件，
+     * 写入中途崩溃不会留下半个文件
+     */
+    public static void writeAtomically(Path target, byte[] data, boolean fsync) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.demo;
+
+import javafx.animation.FadeTransition;
+import javafx.animation.ParallelTransition;
+import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 提醒弹窗管理。
+ * 弹窗的窗口和场景只创建一次并循环使用，每次提醒只替换文字和颜色样式类；
+ * 样式全部来自application.css中的样式类，图标也只加载一次。
+ * 同时显示的弹窗最多MAX_VISIBLE个，依次错开排列，其余的排队等待；
+ * 内容相同的提醒合并为一个，短时间内大量提醒也不会堆积窗口。
+ * 弹窗只在JavaFX应用线程中创建和修改，公开方法可以在任意线程调用。
+ */
+public class PopupManager {
+    private static final String STYLESHEET = "/css/application.css";
+    private static final String[] ICON_PATHS = {"/images/reminder-icon.svg", "/images/icon.png"};
+    private static final String[] ACCENT_CLASSES = {"accent-blue", "accent-green", "accent-red", "accent-yellow"};
+    public static final int MAX_VISIBLE = 3;  // 同时显示的弹窗数量上限
+    private static final int MAX_PENDING = 16; // 排队的弹窗数量上限，超出时丢弃最早的
+    private static final double STACK_OFFSET = 32; // 相邻弹窗错开的距离
+    private static final double SLIDE_DISTANCE = 20; // 淡入淡出时的位移
+    private static final long SHOW_DELAY_MILLIS = 100;
+    private static final long ANIMATION_MILLIS = 220;
+
+    private static PopupManager instance;
+
+    private Image icon; // 所有弹窗共享的图标
+    private final List<PopupView> visible = new ArrayList<>();
+    private final Deque<PendingPopup> pending = new ArrayDeque<>();
+    private final Deque<PopupView> idleTemporary = new ArrayDeque<>(); // 可复用的短暂弹窗
+    private final Deque<PopupView> idleNormal = new ArrayDeque<>();    // 可复用的常规弹窗
+    private int coalescedCount;
+
+    /**
+     * 一个预先构建的弹窗：窗口、场景和需要替换内容的节点
+     */
+    private static final class PopupView {
+        final Stage stage;
+        final VBox container;
+        final Label messageLabel;
+        final boolean temporary;
+        final double width;
+        final double height;
+        String message;
+        int slot; // 错开排列的位置
+        ReminderScheduler.Task closeTask; // 短暂弹窗的自动关闭任务
+        int generation; // 每次重新计时加一，使已经触发的旧关闭任务失效
+        // 淡入淡出共用的动画，随窗口一起复用
+        final FadeTransition fade;
+        final TranslateTransition slide;
+        final ParallelTransition transition;
+
+        PopupView(Stage stage, VBox container, Label messageLabel, boolean temporary, double width, double height) {
+            this.stage = stage;
+            this.container = container;
+            this.messageLabel = messageLabel;
+            this.temporary = temporary;
+            this.width = width;
+            this.height = height;
+            this.fade = new FadeTransition(Duration.millis(ANIMATION_MILLIS));
+            this.slide = new TranslateTransition(Duration.millis(ANIMATION_MILLIS));
+            this.transition = new ParallelTransition(container, fade, slide);
+        }
+    }
+
+    /**
+     * 等待显示的提醒
+     */
+    private static final class PendingPopup {
+        final String message;
+        final boolean temporary;
+        int durationSeconds;
+
+        PendingPopup(String message, boolean temporary, int durationSeconds) {
+            this.message = message;
+            this.temporary = temporary;
+            this.durationSeconds = durationSeconds;
+        }
+    }
+
+    private PopupManager() {
+    }
+
+    public static synchronized PopupManager getInstance() {
+        if (instance == null) {
+            instance = new PopupManager();
+        }
+        return instance;
+    }
+
+    // 显示短暂弹窗（全屏模式下使用），到时自动关闭
+    public void showTemporary(String message, int durationSeconds) {
+        Platform.runLater(() -> request(message, true, durationSeconds));
+    }
+
+    // 显示常规弹窗（非全屏模式下使用），需要手动关闭
+    public void showNormal(String message) {
+        Platform.runLater(() -> request(message, false, 0));
+    }
+
+    // 预先构建弹窗场景，首次提醒时无需等待
+    public void prepare() {
+        Platform.runLater(() -> {
+            if (idleTemporary.isEmpty()) {
+                idleTemporary.push(createView(true));
+            }
+            if (idleNormal.isEmpty()) {
+                idleNormal.push(createView(false));
+            }
+        });
+    }
+
+    // 被合并的重复提醒次数
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    private void request(String message, boolean temporary, int durationSeconds) {
+        // 相同的提醒正在显示时只刷新它
+        for (PopupView view : visible) {
+            if (view.temporary == temporary && Objects.equals(view.message, message)) {
+                coalescedCount++;
+                view.stage.toFront();
+                if (view.transition.getOnFinished() != null) {
+                    fadeIn(view); // 正在淡出时重新显示
+                }
+                scheduleClose(view, durationSeconds);
+                return;
+            }
+        }
+        // 相同的提醒已在排队时合并
+        for (PendingPopup popup : pending) {
+            if (popup.temporary == temporary && Objects.equals(popup.message, message)) {
+                coalescedCount++;
+                popup.durationSeconds = Math.max(popup.durationSeconds, durationSeconds);
+                return;
+            }
+        }
+        if (visible.size() < MAX_VISIBLE) {
+            show(acquire(temporary), message, durationSeconds);
+            return;
+        }
+        pending.addLast(new PendingPopup(message, temporary, durationSeconds));
+        if (pending.size() > MAX_PENDING) {
+            PendingPopup dropped = pending.removeFirst();
+            System.out.println("待显示的弹窗过多，丢弃提醒：" + dropped.message);
+        }
+    }
+
+    private void show(PopupView view, String message, int durationSeconds) {
+        view.message = message;
+        view.messageLabel.setText(message);
+        applyAccent(view.container, Configuration.getInstance().getPopupColor());
+        view.slot = freeSlot();
+        visible.add(view);
+
+        // 在鼠标所在屏幕的中心位置依次错开
+        Rectangle2D screenBounds = ScreenGeometry.getPointerBounds();
+        double offset = view.slot * STACK_OFFSET;
+        view.stage.setX(screenBounds.getMinX() + (screenBounds.getWidth() - view.width) / 2 + offset);
+        view.stage.setY(screenBounds.getMinY() + (screenBounds.getHeight() - view.height) / 2 + offset);
+
+        view.stage.show();
+        fadeIn(view);
+        scheduleClose(view, durationSeconds);
+    }
+
+    // 如果是临时弹窗，设置自动关闭
+    private void scheduleClose(PopupView view, int durationSeconds) {
+        if (view.closeTask != null) {
+            view.closeTask.cancel();
+            view.closeTask = null;
+        }
+        int generation = ++view.generation;
+        if (durationSeconds > 0) {
+            view.closeTask = ReminderScheduler.getInstance().schedule(() -> Platform.runLater(() -> {
+                if (view.generation == generation) {
+                    fadeOutAndHide(view);
+                }
+            }), durationSeconds * 1000L);
+        }
+    }
+
+    // 弹窗隐藏后回收窗口，并显示排队中的提醒
+    private void release(PopupView view) {
+        if (!visible.remove(view)) {
+            return;
+        }
+        if (view.closeTask != null) {
+            view.closeTask.cancel();
+            view.closeTask = null;
+        }
+        view.generation++;
+        view.transition.stop();
+        view.transition.setOnFinished(null);
+        view.message = null;
+        (view.temporary ? idleTemporary : idleNormal).push(view);
+        while (visible.size() < MAX_VISIBLE && !pending.isEmpty()) {
+            PendingPopup next = pending.removeFirst();
+            show(acquire(next.temporary), next.message, next.durationSeconds);
+        }
+    }
+
+    private PopupView acquire(boolean temporary) {
+        PopupView view = (temporary ? idleTemporary : idleNormal).poll();
+        return view != null ? view : createView(temporary);
+    }
+
+    // 未被占用的最小位置
+    private int freeSlot() {
+        int slot = 0;
+        boolean used = true;
+        while (used) {
+            used = false;
+            for (PopupView view : visible) {
+                if (view.slot == slot) {
+                    used = true;
+                    slot++;
+                    break;
+                }
+            }
+        }
+        return slot;
+    }
+
+    // 淡入并上移到原位，减少动画时直接显示
+    private void fadeIn(PopupView view) {
+        view.transition.stop();
+        view.transition.setOnFinished(null);
+        if (Configuration.getInstance().isReducedMotion()) {
+            view.container.setOpacity(1);
+            view.container.setTranslateY(0);
+            return;
+        }
+        view.fade.setFromValue(0);
+        view.fade.setToValue(1);
+        view.slide.setFromY(SLIDE_DISTANCE);
+        view.slide.setToY(0);
+        view.transition.setDelay(Duration.millis(SHOW_DELAY_MILLIS)); // 小延迟确保窗口已显示
+        view.container.setOpacity(0);
+        view.container.setTranslateY(SLIDE_DISTANCE);
+        view.transition.playFromStart();
+    }
+
+    // 淡出后隐藏窗口，窗口保留以便下次使用
+    private void fadeOutAndHide(PopupView view) {
+        if (!view.stage.isShowing()) {
+            return;
+        }
+        view.transition.stop();
+        if (Configuration.getInstance().isReducedMotion()) {
+            view.stage.hide();
+            return;
+        }
+        view.fade.setFromValue(view.container.getOpacity());
+        view.fade.setToValue(0);
+        view.slide.setFromY(view.container.getTranslateY());
+        view.slide.setToY(SLIDE_DISTANCE);
+        view.transition.setDelay(Duration.ZERO);
+        view.transition.setOnFinished(e -> view.stage.hide());
+        view.transition.playFromStart();
+    }
+
+    // 构建弹窗的场景，只在没有可复用的窗口时调用
+    private PopupView createView(boolean isTemporary) {
+        // 创建窗口
+        Stage popupStage = isTemporary ? new Stage(StageStyle.TRANSPARENT) : new Stage();
+        if (!isTemporary) {
+            popupStage.setTitle("久坐提醒");
+        }
+
+        // 主容器
+        VBox container = new VBox(16);
+        container.getStyleClass().add("reminder-popup");
+
+        // 图标
+        ImageView iconView = new ImageView(getIcon());
+        iconView.setFitWidth(48);
+        iconView.setFitHeight(48);
+        iconView.setPreserveRatio(true);
+
+        // 标题
+        Label titleLabel = new Label("久坐提醒");
+        titleLabel.getStyleClass().add("reminder-popup-title");
+
+        // 消息内容
+        Label messageLabel = new Label();
+        messageLabel.getStyleClass().add("reminder-popup-message");
+        messageLabel.setMaxWidth(320);
+        messageLabel.setAlignment(Pos.CENTER);
+        messageLabel.setWrapText(true);
+
+        // 关闭按钮，悬停效果由样式表的:hover处理
+        Button closeButton = new Button("关闭");
+        closeButton.getStyleClass().add("reminder-popup-button");
+
+        // 按钮容器
+        HBox buttonBox = new HBox(12);
+        buttonBox.setAlignment(Pos.CENTER);
+        buttonBox.getChildren().add(closeButton);
+
+        // 添加所有组件到容器
+        container.getChildren().addAll(iconView, titleLabel, messageLabel, buttonBox);
+
+        // 创建场景
+        Scene scene = new Scene(container);
+        if (isTemporary) {
+            scene.setFill(Color.TRANSPARENT);
+        }
+        scene.getStylesheets().add(STYLESHEET);
+
+        popupStage.setScene(scene);
+        popupStage.setAlwaysOnTop(true);
+        popupStage.setResizable(false);
+
+        double width = isTemporary ? 380 : 420;
+        double height = isTemporary ? 280 : 300;
+        popupStage.setWidth(width);
+        popupStage.setHeight(height);
+
+        PopupView view = new PopupView(popupStage, container, messageLabel, isTemporary, width, height);
+        closeButton.setOnAction(e -> popupStage.hide());
+        // 关闭按钮、窗口标题栏和自动关闭最终都会隐藏窗口，在这里统一回收
+        popupStage.setOnHidden(e -> release(view));
+        return view;
+    }
+
+    // 按配置的弹窗颜色切换样式类
+    private static void applyAccent(VBox container, String colorName) {
+        String accent;
+        if (colorName == null) {
+            accent = "accent-blue";
+        } else {
+            switch (colorName) {
+                case "绿色":
+                    accent = "accent-green";
+                    break;
+                case "红色":
+                    accent = "accent-red";
+                    break;
+                case "黄色":
+                    accent = "accent-yellow";
+                    break;
+                case "蓝色":
+                default:
+                    accent = "accent-blue";
+            }
+        }
+        if (container.getStyleClass().contains(accent)) {
+            return;
+        }
+        container.getStyleClass().removeAll(ACCENT_CLASSES);
+        container.getStyleClass().add(accent);
+    }
+
+    // 加载图标，不支持的格式依次尝试下一个
+    private Image getIcon() {
+        if (icon == null) {
+            for (String path : ICON_PATHS) {
+                try {
+                    Image image = new Image(path);
+                    if (!image.isError()) {
+                        icon = image;
+                        break;
+                    }
+                } catch (Exception e) {
+                    System.out.println("无法加载图标: " + e.getMessage());
+                }
+            }
+        }
+        return icon;
+    }
+}
@@ -0,0 +1,216 @@
+package com.demo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按列存储的提醒记录集合。
+ * 开始时间、结束时间（秒级时间戳）和标志位分别保存在基本类型数组中，
+ * 每条记录只占20字节，百万条历史也只需几MB；
+ * 按时间范围扫描是对数组的紧凑循环，不创建任何对象。
+ * 界面通过row()取得轻量的行视图，格式化字符串在需要显示时才生成。
+ */
+public class RecordColumns {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] starts;
+    private long[] ends;
+    private int[] flags;
+    private int size;
+    // 记录是否按开始时间非递减追加，决定范围查询能否使用二分查找
+    private boolean sorted = true;
+
+    public RecordColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public RecordColumns(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        starts = new long[capacity];
+        ends = new long[capacity];
+        flags = new int[capacity];
+    }
+
+    // 追加一条记录，参数顺序与ReminderRecordLog.RecordVisitor一致，可直接作为访问回调
+    public synchronized void add(long startEpochSecond, long endEpochSecond, int recordFlags) {
+        if (size == starts.length) {
+            int capacity = size + (size >> 1) + 1;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        if (size > 0 && startEpochSecond < starts[size - 1]) {
+            sorted = false;
+        }
+        starts[size] = startEpochSecond;
+        ends[size] = endEpochSecond;
+        flags[size] = recordFlags;
+        size++;
+    }
+
+    public void add(ReminderRecord record) {
+        add(record.getStartEpochSecond(), record.getEndEpochSecond(), record.getFlags());
+    }
+
+    public synchronized void addAll(RecordColumns other) {
+        RecordColumns source = other.copy();
+        for (int i = 0; i < source.size; i++) {
+            add(source.starts[i], source.ends[i], source.flags[i]);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized long getStartEpochSecond(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    public synchronized long getEndEpochSecond(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    public synchronized int getFlags(int index) {
+        checkIndex(index);
+        return flags[index];
+    }
+
+    public synchronized void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    // 当前内容的独立副本
+    public synchronized RecordColumns copy() {
+        RecordColumns copy = new RecordColumns(size);
+        System.arraycopy(starts, 0, copy.starts, 0, size);
+        System.arraycopy(ends, 0, copy.ends, 0, size);
+        System.arraycopy(flags, 0, copy.flags, 0, size);
+        copy.size = size;
+        copy.sorted = sorted;
+        return copy;
+    }
+
+    // 指定下标的行视图，供表格显示
+    public RecordRow row(int index) {
+        checkIndex(index);
+        return new RecordRow(this, index);
+    }
+
+    // 所有记录的行视图
+    public synchronized List<RecordRow> rows() {
+        List<RecordRow> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rows.add(new RecordRow(this, i));
+        }
+        return rows;
+    }
+
+    // 转换为记录对象列表，只用于兼容旧接口
+    public synchronized List<ReminderRecord> toRecords() {
+        List<ReminderRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(ReminderRecord.ofEpochSeconds(starts[i], ends[i], flags[i]));
+        }
+        return records;
+    }
+
+    // 依次访问所有记录
+    public synchronized void forEach(ReminderRecordLog.RecordVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(starts[i], ends[i], flags[i]);
+        }
+    }
+
+    /**
+     * 依次访问开始时间落在[fromEpochSecond, toEpochSecond)内的记录，
+     * 记录有序时通过二分查找定位起点
+     */
+    public synchronized void forEachInRange(long fromEpochSecond, long toEpochSecond, ReminderRecordLog.RecordVisitor visitor) {
+        if (!sorted) {
+            for (int i = 0; i < size; i++) {
+                if (starts[i] >= fromEpochSecond && starts[i] < toEpochSecond) {
+                    visitor.visit(starts[i], ends[i], flags[i]);
+                }
+            }
+            return;
+        }
+        for (int i = lowerBound(fromEpochSecond); i < size && starts[i] < toEpochSecond; i++) {
+            visitor.visit(starts[i], ends[i], flags[i]);
+        }
+    }
+
+    // 时间范围内所有记录的总时长（秒）
+    public synchronized long totalSecondsInRange(long fromEpochSecond, long toEpochSecond) {
+        long total = 0;
+        int i = sorted ? lowerBound(fromEpochSecond) : 0;
+        for (; i < size; i++) {
+            if (sorted && starts[i] >= toEpochSecond) {
+                break;
+            }
+            if (starts[i] >= fromEpochSecond && starts[i] < toEpochSecond) {
+                total += ends[i] - starts[i];
+            }
+        }
+        return total;
+    }
+
+    public synchronized boolean isSorted() {
+        return sorted;
+    }
+
+    // 按开始时间排序，记录通常按时间顺序追加，只有系统时间被回拨时才需要
+    public synchronized void sortByStart() {
+        if (sorted) {
+            return;
+        }
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+        long[] sortedStarts = new long[starts.length];
+        long[] sortedEnds = new long[ends.length];
+        int[] sortedFlags = new int[flags.length];
+        for (int i = 0; i < size; i++) {
+            sortedStarts[i] = starts[order[i]];
+            sortedEnds[i] = ends[order[i]];
+            sortedFlags[i] = flags[order[i]];
+        }
+        starts = sortedStarts;
+        ends = sortedEnds;
+        flags = sortedFlags;
+        sorted = true;
+    }
+
+    /**
+     * 第一个开始时间不小于指定时间的下标，要求记录已按开始时间排序
+     */
+    public synchronized int lowerBound(long epochSecond) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("记录下标越界：" + index + "，共" + size + "条");
+        }
+    }
+}
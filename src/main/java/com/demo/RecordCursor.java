@@ -0,0 +1,110 @@
+package com.demo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 查询结果游标，按月份依次加载记录，不会一次复制整个历史。
+ * 用法：while (cursor.next()) { cursor.getStartEpochSecond() ... }
+ * 访问字段不创建对象；需要显示时通过row()取得行视图。
+ */
+public class RecordCursor {
+    private final SegmentedRecordStore store;
+    private final RecordQuery query;
+    private final List<YearMonth> months;
+    private int monthIndex = -1;
+    private RecordColumns current;
+    private int position;
+    private int end;
+
+    RecordCursor(SegmentedRecordStore store, RecordQuery query, List<YearMonth> months) {
+        this.store = store;
+        this.query = query;
+        this.months = months;
+    }
+
+    // 移动到下一条满足条件的记录，没有更多记录时返回false
+    public boolean next() throws IOException {
+        while (true) {
+            if (current != null) {
+                while (++position < end) {
+                    if (query.matchesCalendar(current.getStartEpochSecond(position))) {
+                        return true;
+                    }
+                }
+            }
+            if (++monthIndex >= months.size()) {
+                current = null;
+                return false;
+            }
+            current = store.loadMonth(months.get(monthIndex));
+            // 月份内按开始时间二分定位查询范围
+            int first = current.lowerBound(query.getFromEpochSecond());
+            end = current.lowerBound(query.getToEpochSecond());
+            position = first - 1;
+        }
+    }
+
+    // 跳过最多count条记录，返回实际跳过的条数
+    public int skip(int count) throws IOException {
+        int skipped = 0;
+        while (skipped < count && next()) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    // 读取下一页，最多limit条
+    public List<RecordRow> nextPage(int limit) throws IOException {
+        List<RecordRow> page = new ArrayList<>(Math.min(limit, 256));
+        while (page.size() < limit && next()) {
+            page.add(row());
+        }
+        return page;
+    }
+
+    public long getStartEpochSecond() {
+        return current.getStartEpochSecond(position);
+    }
+
+    public long getEndEpochSecond() {
+        return current.getEndEpochSecond(position);
+    }
+
+    public int getFlags() {
+        return current.getFlags(position);
+    }
+
+    // 当前记录的行视图
+    public RecordRow row() {
+        return current.row(position);
+    }
+
+    // 以流的形式访问剩余记录，流是惰性的，按需加载各月份
+    public Stream<RecordRow> stream() {
+        Spliterator<RecordRow> spliterator = new Spliterators.AbstractSpliterator<RecordRow>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super RecordRow> action) {
+                try {
+                    if (!next()) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                action.accept(row());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+}
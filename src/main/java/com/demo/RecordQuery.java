@@ -0,0 +1,98 @@
+package com.demo;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 提醒记录的查询条件：开始时间范围、星期几和一天中的时段。
+ * 对象不可变，with开头的方法返回新的查询条件。
+ */
+public final class RecordQuery {
+    private final long fromEpochSecond;   // 包含
+    private final long toEpochSecond;     // 不包含
+    private final Set<DayOfWeek> daysOfWeek; // 为null表示不限
+    private final int fromHour;           // 一天中的时段[fromHour, toHour)
+    private final int toHour;
+    private final ZoneId zone;
+
+    private RecordQuery(long fromEpochSecond, long toEpochSecond, Set<DayOfWeek> daysOfWeek,
+                        int fromHour, int toHour, ZoneId zone) {
+        this.fromEpochSecond = fromEpochSecond;
+        this.toEpochSecond = toEpochSecond;
+        this.daysOfWeek = daysOfWeek;
+        this.fromHour = fromHour;
+        this.toHour = toHour;
+        this.zone = zone;
+    }
+
+    // 全部记录
+    public static RecordQuery all() {
+        return new RecordQuery(Long.MIN_VALUE, Long.MAX_VALUE, null, 0, 24, ZoneId.systemDefault());
+    }
+
+    // 开始时间落在[from, to)内的记录
+    public static RecordQuery between(LocalDateTime from, LocalDateTime to) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new RecordQuery(from.atZone(zone).toEpochSecond(), to.atZone(zone).toEpochSecond(), null, 0, 24, zone);
+    }
+
+    // 开始时间不早于from的记录，包括之后新增的记录
+    public static RecordQuery since(LocalDateTime from) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new RecordQuery(from.atZone(zone).toEpochSecond(), Long.MAX_VALUE, null, 0, 24, zone);
+    }
+
+    // 某一天内的记录
+    public static RecordQuery onDay(LocalDate day) {
+        return between(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+    }
+
+    // 只保留指定星期几的记录
+    public RecordQuery withDaysOfWeek(Set<DayOfWeek> days) {
+        Set<DayOfWeek> copy = days == null || days.isEmpty() ? null : EnumSet.copyOf(days);
+        return new RecordQuery(fromEpochSecond, toEpochSecond, copy, fromHour, toHour, zone);
+    }
+
+    // 只保留开始时间在一天中[fromHour, toHour)时段内的记录，fromHour大于toHour时表示跨越午夜
+    public RecordQuery withHoursOfDay(int fromHour, int toHour) {
+        if (fromHour < 0 || fromHour > 23 || toHour < 0 || toHour > 24) {
+            throw new IllegalArgumentException("无效的时段：" + fromHour + "-" + toHour);
+        }
+        return new RecordQuery(fromEpochSecond, toEpochSecond, daysOfWeek, fromHour, toHour, zone);
+    }
+
+    public long getFromEpochSecond() {
+        return fromEpochSecond;
+    }
+
+    public long getToEpochSecond() {
+        return toEpochSecond;
+    }
+
+    // 是否只有时间范围条件，此时不需要逐条换算本地时间
+    boolean isRangeOnly() {
+        return daysOfWeek == null && fromHour == 0 && toHour == 24;
+    }
+
+    // 判断开始时间是否满足星期和时段条件，时间范围由调用方通过二分查找保证
+    boolean matchesCalendar(long startEpochSecond) {
+        if (isRangeOnly()) {
+            return true;
+        }
+        ZonedDateTime time = Instant.ofEpochSecond(startEpochSecond).atZone(zone);
+        if (daysOfWeek != null && !daysOfWeek.contains(time.getDayOfWeek())) {
+            return false;
+        }
+        int hour = time.getHour();
+        if (fromHour <= toHour) {
+            return hour >= fromHour && hour < toHour;
+        }
+        return hour >= fromHour || hour < toHour;
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * RecordColumns中一行记录的轻量视图，只保存所属集合和下标。
+ * 表格需要显示时才读取基本类型字段并格式化，结果缓存在行内，
+ * 滚动时不会反复调用DateTimeFormatter。
+ */
+public class RecordRow {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final RecordColumns columns;
+    private final int index;
+    private String startTimeDisplay;
+    private String endTimeDisplay;
+    private String durationDisplay;
+
+    RecordRow(RecordColumns columns, int index) {
+        this.columns = columns;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getStartEpochSecond() {
+        return columns.getStartEpochSecond(index);
+    }
+
+    public long getEndEpochSecond() {
+        return columns.getEndEpochSecond(index);
+    }
+
+    public int getFlags() {
+        return columns.getFlags(index);
+    }
+
+    public long getDurationMinutes() {
+        return (getEndEpochSecond() - getStartEpochSecond()) / 60;
+    }
+
+    // 用于表格显示的属性
+    public String getStartTimeDisplay() {
+        if (startTimeDisplay == null) {
+            startTimeDisplay = format(getStartEpochSecond());
+        }
+        return startTimeDisplay;
+    }
+
+    public String getEndTimeDisplay() {
+        if (endTimeDisplay == null) {
+            endTimeDisplay = format(getEndEpochSecond());
+        }
+        return endTimeDisplay;
+    }
+
+    public String getDurationDisplay() {
+        if (durationDisplay == null) {
+            durationDisplay = getDurationMinutes() + " 分钟";
+        }
+        return durationDisplay;
+    }
+
+    private static String format(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault()).format(FORMATTER);
+    }
+}
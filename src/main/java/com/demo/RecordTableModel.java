@@ -0,0 +1,312 @@
+package com.demo;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 提醒记录表格的数据源。
+ * 记录保存在按列存储的RecordColumns中，排序和筛选只重排一个int下标数组，
+ * 表格行对象在表格读取时才创建，只缓存最近显示过的少量行（连同格式化后的文字）。
+ * 新记录按增量追加，只通知表格新增的行，十万条以上的记录滚动和刷新也不会卡顿。
+ * 配置中的记录视图只包含启动时所在月份之后的记录，更早的历史记录按筛选条件在后台从记录库读取。
+ * 只能在JavaFX应用线程中使用。
+ */
+public class RecordTableModel extends ObservableListBase<RecordRow> {
+    private static final int ROW_CACHE_SIZE = 256; // 必须是2的幂
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "record-history-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 排序依据
+     */
+    public enum SortKey {
+        INSERTION, START, END, DURATION
+    }
+
+    private RecordColumns data = new RecordColumns(); // 历史记录在前，记录视图中的记录在后
+    private int historySize;       // data中历史记录的条数
+    private long viewStartEpochSecond = Long.MIN_VALUE; // 记录视图的起始时间，历史记录都早于它
+    private int generation = -1;   // 已加载记录对应的记录视图代数
+    private int historyRequest;    // 最近一次历史记录加载的编号，用于丢弃过期的结果
+    private Configuration config;  // 最近一次同步的配置，筛选条件改变时从中重新读取历史记录
+    private int[] order = new int[16]; // 表格第i行对应的记录下标
+    private int size;
+    private SortKey sortKey = SortKey.INSERTION;
+    private boolean ascending = true;
+    private RecordQuery filter = RecordQuery.all();
+    private final RecordRow[] rowCache = new RecordRow[ROW_CACHE_SIZE]; // 按记录下标直接映射
+
+    @Override
+    public RecordRow get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return rowFor(order[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 从配置同步记录：只追加新增的记录；记录被清空或重新加载过时整体替换
+     */
+    public void sync(Configuration config) {
+        this.config = config;
+        int loaded = data.size();
+        int current = config.appendRecordsSince(generation, loaded - historySize, data);
+        if (current != generation) {
+            // 记录视图已被替换，重新加载到新的集合中，旧集合留给被移除的行使用；
+            // 历史记录随后在后台按新的记录视图起始时间重新读取
+            RecordColumns reloaded = new RecordColumns();
+            int expected;
+            do {
+                expected = current;
+                current = config.appendRecordsSince(expected, reloaded.size(), reloaded);
+            } while (current != expected);
+            List<RecordRow> removed = view(data, order, size);
+            data = reloaded;
+            historySize = 0;
+            viewStartEpochSecond = config.getRecordViewStartEpochSecond();
+            generation = current;
+            clearRowCache();
+            rebuild(removed);
+            loadHistory();
+            return;
+        }
+        int added = data.size();
+        if (added == loaded) {
+            return;
+        }
+        beginChange();
+        for (int record = loaded; record < added; record++) {
+            if (!matches(record)) {
+                continue;
+            }
+            int position = insertionPoint(record);
+            ensureCapacity(size + 1);
+            System.arraycopy(order, position, order, position + 1, size - position);
+            order[position] = record;
+            size++;
+            nextAdd(position, position + 1);
+        }
+        endChange();
+    }
+
+    // 按指定的列排序，只重排下标
+    public void sort(SortKey key, boolean ascending) {
+        this.sortKey = key;
+        this.ascending = ascending;
+        rebuild(view(data, order, size));
+    }
+
+    // 按查询条件筛选显示的记录，历史记录按新的条件重新读取
+    public void setFilter(RecordQuery query) {
+        this.filter = query == null ? RecordQuery.all() : query;
+        rebuild(view(data, order, size));
+        loadHistory();
+    }
+
+    // 在后台读取记录视图之前满足筛选条件的历史记录，读取完成后替换表格中的历史部分
+    private void loadHistory() {
+        if (config == null) {
+            return;
+        }
+        int request = ++historyRequest;
+        Configuration source = config;
+        RecordQuery query = filter;
+        long before = viewStartEpochSecond;
+        if (query.getFromEpochSecond() >= before) {
+            installHistory(request, new RecordColumns()); // 筛选范围都在记录视图之内
+            return;
+        }
+        LOADER.submit(() -> {
+            RecordColumns history = new RecordColumns();
+            try {
+                // 游标按开始时间升序返回，到达记录视图的起始时间即可停止
+                RecordCursor cursor = source.queryRecords(query);
+                while (cursor.next() && cursor.getStartEpochSecond() < before) {
+                    history.add(cursor.getStartEpochSecond(), cursor.getEndEpochSecond(), cursor.getFlags());
+                }
+            } catch (IOException e) {
+                System.err.println("读取历史提醒记录失败：" + e.getMessage());
+            }
+            Platform.runLater(() -> installHistory(request, history));
+        });
+    }
+
+    // 用新读取的历史记录替换旧的，记录视图部分保持不变
+    private void installHistory(int request, RecordColumns history) {
+        if (request != historyRequest) {
+            return; // 期间筛选条件或记录视图又变了，等待更新的结果
+        }
+        if (history.isEmpty() && historySize == 0) {
+            return;
+        }
+        RecordColumns merged = new RecordColumns(history.size() + data.size() - historySize);
+        merged.addAll(history);
+        for (int record = historySize; record < data.size(); record++) {
+            merged.add(data.getStartEpochSecond(record), data.getEndEpochSecond(record), data.getFlags(record));
+        }
+        List<RecordRow> removed = view(data, order, size);
+        data = merged;
+        historySize = history.size();
+        clearRowCache();
+        rebuild(removed);
+    }
+
+    // 重新筛选和排序全部记录，通知表格整体替换
+    private void rebuild(List<RecordRow> removed) {
+        int count = data.size();
+        int[] rebuilt = new int[Math.max(16, count)];
+        int matched = 0;
+        for (int record = 0; record < count; record++) {
+            if (matches(record)) {
+                rebuilt[matched++] = record;
+            }
+        }
+        if (sortKey != SortKey.INSERTION) {
+            // 先取出排序键，排序过程中不再逐次读取记录
+            long[] keys = new long[count];
+            for (int i = 0; i < matched; i++) {
+                keys[rebuilt[i]] = key(rebuilt[i]);
+            }
+            mergeSort(rebuilt, new int[matched], keys, 0, matched);
+        }
+        if (!ascending) {
+            for (int i = 0, j = matched - 1; i < j; i++, j--) {
+                int swap = rebuilt[i];
+                rebuilt[i] = rebuilt[j];
+                rebuilt[j] = swap;
+            }
+        }
+        order = rebuilt;
+        size = matched;
+        beginChange();
+        if (!removed.isEmpty()) {
+            nextRemove(0, removed);
+        }
+        if (size > 0) {
+            nextAdd(0, size);
+        }
+        endChange();
+    }
+
+    private boolean matches(int record) {
+        long start = data.getStartEpochSecond(record);
+        if (record >= historySize && start < viewStartEpochSecond) {
+            return false; // 时钟回拨后补记到更早月份的记录，以记录库中读到的历史记录为准
+        }
+        return start >= filter.getFromEpochSecond() && start < filter.getToEpochSecond()
+                && filter.matchesCalendar(start);
+    }
+
+    // 新记录在当前排序下的插入位置，相同的值排在已有记录之后
+    private int insertionPoint(int record) {
+        if (sortKey == SortKey.INSERTION) {
+            return ascending ? size : 0;
+        }
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(order[mid], record);
+            if (ascending ? cmp <= 0 : cmp > 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int a, int b) {
+        int cmp = Long.compare(key(a), key(b));
+        return cmp != 0 ? cmp : Integer.compare(a, b);
+    }
+
+    private long key(int record) {
+        switch (sortKey) {
+            case START:
+                return data.getStartEpochSecond(record);
+            case END:
+                return data.getEndEpochSecond(record);
+            case DURATION:
+                return data.getEndEpochSecond(record) - data.getStartEpochSecond(record);
+            default:
+                return record;
+        }
+    }
+
+    // 按排序键对下标数组做稳定的归并排序，避免装箱
+    private static void mergeSort(int[] values, int[] buffer, long[] keys, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(values, buffer, keys, from, mid);
+        mergeSort(values, buffer, keys, mid, to);
+        if (keys[values[mid - 1]] <= keys[values[mid]]) {
+            return; // 已经有序
+        }
+        System.arraycopy(values, from, buffer, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && keys[buffer[i]] <= keys[buffer[j]])) {
+                values[k] = buffer[i++];
+            } else {
+                values[k] = buffer[j++];
+            }
+        }
+    }
+
+    private RecordRow rowFor(int record) {
+        int slot = record & (ROW_CACHE_SIZE - 1);
+        RecordRow row = rowCache[slot];
+        if (row == null || row.getIndex() != record) {
+            row = data.row(record);
+            rowCache[slot] = row;
+        }
+        return row;
+    }
+
+    private void clearRowCache() {
+        for (int i = 0; i < ROW_CACHE_SIZE; i++) {
+            rowCache[i] = null;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (order.length < capacity) {
+            int[] grown = new int[Math.max(capacity, order.length * 2)];
+            System.arraycopy(order, 0, grown, 0, size);
+            order = grown;
+        }
+    }
+
+    // 替换前的行，只在表格读取被移除的行时才创建行对象
+    private static List<RecordRow> view(RecordColumns columns, int[] rows, int count) {
+        return new AbstractList<RecordRow>() {
+            @Override
+            public RecordRow get(int index) {
+                return columns.row(rows[index]);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 提醒方式
+ */
+public enum ReminderChannel {
+    POPUP,  // 弹窗
+    SOUND,  // 声音
+    FLASH;  // 屏幕边缘闪烁
+
+    // 解析以逗号分隔的提醒方式列表，忽略无法识别的项
+    public static Set<ReminderChannel> parse(String value) {
+        Set<ReminderChannel> channels = EnumSet.noneOf(ReminderChannel.class);
+        if (value == null) {
+            return channels;
+        }
+        for (String item : value.split(",")) {
+            try {
+                channels.add(valueOf(item.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                System.out.println("忽略未知的提醒方式：" + item);
+            }
+        }
+        return channels;
+    }
+
+    // 转换为以逗号分隔的字符串，用于保存配置
+    public static String format(Set<ReminderChannel> channels) {
+        StringBuilder builder = new StringBuilder();
+        for (ReminderChannel channel : channels) {
+            if (builder.length() > 0) {
+                builder.append(",");
+            }
+            builder.append(channel.name().toLowerCase());
+        }
+        return builder.toString();
+    }
+}
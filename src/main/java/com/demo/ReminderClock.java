@@ -0,0 +1,201 @@
+package com.demo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于单调时钟的提醒时钟，不受系统时间调整影响，也不会累积漂移。
+ * 单调时钟取自BootClock，计入系统休眠的时间，休眠期间提醒照常到期。
+ * 每次检查时对比单调时钟和系统时间的走时来记录系统时间跳变（跳变不影响计时），
+ * 两次检查间隔远超约定的最大间隔时认为发生了休眠/挂起，
+ * 并按照配置的补偿策略处理错过的提醒，同时统计实际触发时间的抖动。
+ * BootClock无法读取本地时钟时（见BootClock.countsSuspend），Linux和macOS上的休眠
+ * 只会被记录为系统时间前跳，补偿策略不会生效。
+ */
+public class ReminderClock {
+    /**
+     * 错过提醒（例如笔记本休眠唤醒后）时的补偿策略
+     */
+    public enum CatchUpPolicy {
+        SKIP,       // 跳过错过的提醒，保持原有节奏
+        FIRE_ONCE,  // 只补发一次提醒，然后保持原有节奏
+        RESET;      // 不补发，从当前时间重新开始计时
+
+        // 从配置字符串解析，无法识别时使用默认策略
+        public static CatchUpPolicy fromString(String value, CatchUpPolicy defaultPolicy) {
+            if (value == null) {
+                return defaultPolicy;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return defaultPolicy;
+            }
+        }
+    }
+
+    // 调用方两次检查之间的最大间隔，超过此值加上容差即认为进程被挂起
+    public static final long MAX_CHECK_INTERVAL_MILLIS = 60 * 1000;
+    // 单调时钟与系统时间走时差超过该值时认为系统时间发生了跳变
+    private static final long JUMP_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final long intervalNanos;
+    private final CatchUpPolicy policy;
+
+    private long nextFireNanos;      // 下次触发的单调时间
+    private long lastCheckNanos;     // 上次检查的单调时间
+    private long lastCheckWallMillis; // 上次检查的系统时间
+
+    // 统计信息
+    private long fireCount;
+    private long jitterSamples;
+    private long totalJitterNanos;
+    private long maxJitterNanos;
+    private long suspendCount;
+    private long clockJumpCount;
+
+    public ReminderClock(long intervalMillis, CatchUpPolicy policy) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("提醒间隔必须大于0：" + intervalMillis);
+        }
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.policy = policy != null ? policy : CatchUpPolicy.FIRE_ONCE;
+    }
+
+    // 开始计时，首次提醒在一个完整间隔之后
+    public synchronized void start() {
+        start(TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+    }
+
+    // 开始计时，并指定首次提醒前的延迟（毫秒）
+    public synchronized void start(long firstDelayMillis) {
+        long now = BootClock.nanoTime();
+        nextFireNanos = now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, firstDelayMillis));
+        lastCheckNanos = now;
+        lastCheckWallMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 检查时钟状态，判断此刻是否应当触发提醒。
+     * 调用方至少每隔MAX_CHECK_INTERVAL_MILLIS调用一次，
+     * 每次返回true表示恰好需要触发一次提醒，不会出现连续补发。
+     */
+    public synchronized boolean poll() {
+        long now = BootClock.nanoTime();
+        long wallMillis = System.currentTimeMillis();
+        long monoElapsed = now - lastCheckNanos;
+        long drift = TimeUnit.MILLISECONDS.toNanos(wallMillis - lastCheckWallMillis) - monoElapsed;
+        lastCheckNanos = now;
+        lastCheckWallMillis = wallMillis;
+
+        // 系统时间被手动修改或由NTP校正，单调时钟不受影响，只做记录
+        if (drift > JUMP_THRESHOLD_NANOS) {
+            clockJumpCount++;
+            System.out.println("检测到系统时间前跳，约" + TimeUnit.NANOSECONDS.toSeconds(drift) + "秒"
+                    + (BootClock.countsSuspend() ? "" : "（单调时钟不计入休眠，也可能是休眠）"));
+        } else if (drift < -JUMP_THRESHOLD_NANOS) {
+            clockJumpCount++;
+            System.out.println("检测到系统时间回拨，约" + TimeUnit.NANOSECONDS.toSeconds(-drift) + "秒");
+        }
+
+        // 只有单调时钟本身显示两次检查间隔过长时，才认为进程被休眠或挂起
+        boolean suspended = false;
+        if (monoElapsed > TimeUnit.MILLISECONDS.toNanos(MAX_CHECK_INTERVAL_MILLIS) + JUMP_THRESHOLD_NANOS) {
+            suspended = true;
+            suspendCount++;
+            System.out.println("检测到进程长时间未运行，约" + TimeUnit.NANOSECONDS.toSeconds(monoElapsed) + "秒");
+        }
+
+        long overdue = now - nextFireNanos;
+        if (overdue < 0) {
+            // 还没到触发时间；休眠后按RESET策略重新计时
+            if (suspended && policy == CatchUpPolicy.RESET) {
+                nextFireNanos = now + intervalNanos;
+            }
+            return false;
+        }
+
+        if (!suspended && overdue < intervalNanos) {
+            // 正常触发，以计划时间为基准推进，避免漂移
+            recordJitter(overdue);
+            nextFireNanos += intervalNanos;
+            if (nextFireNanos - now <= 0) {
+                nextFireNanos = now + intervalNanos;
+            }
+            return true;
+        }
+
+        // 错过了提醒，按补偿策略处理
+        switch (policy) {
+            case SKIP:
+                nextFireNanos = now + intervalNanos - (overdue % intervalNanos);
+                return false;
+            case RESET:
+                nextFireNanos = now + intervalNanos;
+                return false;
+            case FIRE_ONCE:
+            default:
+                nextFireNanos = now + intervalNanos - (overdue % intervalNanos);
+                fireCount++;
+                return true;
+        }
+    }
+
+    // 记录一次正常触发的抖动
+    private void recordJitter(long jitterNanos) {
+        fireCount++;
+        jitterSamples++;
+        totalJitterNanos += jitterNanos;
+        if (jitterNanos > maxJitterNanos) {
+            maxJitterNanos = jitterNanos;
+        }
+    }
+
+    // 距离下次提醒的剩余时间（毫秒）
+    public synchronized long getRemainingMillis() {
+        long remainingNanos = nextFireNanos - BootClock.nanoTime();
+        // 向上取整，避免调用方提前一点醒来后又空转一次
+        return remainingNanos <= 0 ? 0 : (remainingNanos + 999_999) / 1_000_000;
+    }
+
+    // 调用方下一次检查前应等待的时间（毫秒），从上次检查算起不超过最大检查间隔
+    public synchronized long nextCheckDelayMillis() {
+        long sinceCheckMillis = TimeUnit.NANOSECONDS.toMillis(BootClock.nanoTime() - lastCheckNanos);
+        return Math.max(0, Math.min(getRemainingMillis(), MAX_CHECK_INTERVAL_MILLIS - sinceCheckMillis));
+    }
+
+    public long getIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+    }
+
+    public CatchUpPolicy getPolicy() {
+        return policy;
+    }
+
+    public synchronized long getFireCount() {
+        return fireCount;
+    }
+
+    public synchronized long getSuspendCount() {
+        return suspendCount;
+    }
+
+    public synchronized long getClockJumpCount() {
+        return clockJumpCount;
+    }
+
+    // 正常触发的平均抖动（毫秒）
+    public synchronized double getMeanJitterMillis() {
+        return jitterSamples == 0 ? 0 : totalJitterNanos / 1_000_000.0 / jitterSamples;
+    }
+
+    // 正常触发的最大抖动（毫秒）
+    public synchronized double getMaxJitterMillis() {
+        return maxJitterNanos / 1_000_000.0;
+    }
+
+    // 用于日志输出的统计摘要
+    public synchronized String describeJitter() {
+        return String.format("已触发%d次，平均抖动%.1fms，最大抖动%.1fms，休眠%d次，时间跳变%d次",
+                fireCount, getMeanJitterMillis(), getMaxJitterMillis(), suspendCount, clockJumpCount);
+    }
+}
@@ -0,0 +1,170 @@
+package com.demo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 无界面的多用户提醒服务。
+ * 一个JVM中保存所有用户各自的配置和提醒记录，所有用户的提醒计划运行在同一个引擎上，
+ * 触发后通过可插拔的NotificationSink送达各自的会话。
+ * 用户状态互相隔离，并按用户标识分段加锁，数百个用户之间不会互相阻塞。
+ */
+public class ReminderDaemon {
+    // 分段锁数量，必须是2的幂
+    private static final int LOCK_STRIPES = 64;
+    // 引擎中计划名称的用户前缀分隔符
+    private static final char NAME_SEPARATOR = '/';
+    // 停止服务时等待后台写入完成的最长时间
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private final ConcurrentHashMap<String, UserSession> sessions = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+    private final ReminderEngine engine;
+    private final NotificationSink sink;
+
+    public ReminderDaemon(NotificationSink sink) {
+        this.sink = sink;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        engine = new ReminderEngine("reminder-daemon", this::onReminder, ReminderClock.CatchUpPolicy.FIRE_ONCE);
+    }
+
+    // 获取用户对应的分段锁
+    private Object lockFor(String userId) {
+        int hash = userId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * 添加用户并启动其提醒计划，已存在的同名用户会先被移除
+     * @param userId 用户标识，不能包含'/'
+     * @param configDirectory 该用户的配置目录
+     */
+    public UserSession addUser(String userId, String configDirectory) {
+        if (userId == null || userId.isEmpty() || userId.indexOf(NAME_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("无效的用户标识：" + userId);
+        }
+        synchronized (lockFor(userId)) {
+            removeUser(userId);
+            UserSession session = new UserSession(userId, Configuration.forDirectory(configDirectory));
+            sessions.put(userId, session);
+            scheduleUser(session);
+            System.out.println("已加载用户" + userId + "，配置目录：" + configDirectory);
+            return session;
+        }
+    }
+
+    // 重新读取用户配置并重新注册提醒计划
+    public boolean reloadUser(String userId) {
+        UserSession session = sessions.get(userId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (lockFor(userId)) {
+            unscheduleUser(session);
+            session.getConfiguration().loadConfiguration();
+            scheduleUser(session);
+        }
+        return true;
+    }
+
+    // 移除用户，保存其配置和提醒记录
+    public boolean removeUser(String userId) {
+        synchronized (lockFor(userId)) {
+            UserSession session = sessions.remove(userId);
+            if (session == null) {
+                return false;
+            }
+            unscheduleUser(session);
+            saveUser(session);
+            return true;
+        }
+    }
+
+    public UserSession getSession(String userId) {
+        return sessions.get(userId);
+    }
+
+    public int getUserCount() {
+        return sessions.size();
+    }
+
+    // 保存所有用户数据并停止服务
+    public void shutdown() {
+        engine.shutdown();
+        for (UserSession session : new ArrayList<>(sessions.values())) {
+            synchronized (lockFor(session.getUserId())) {
+                saveUser(session);
+            }
+        }
+        PersistenceService.getInstance().flush(SHUTDOWN_FLUSH_TIMEOUT_MILLIS);
+        sink.close();
+    }
+
+    // 把用户的所有提醒计划注册到共享引擎，调用方需持有该用户的锁
+    private void scheduleUser(UserSession session) {
+        Configuration config = session.getConfiguration();
+        List<ReminderSchedule> schedules = new ArrayList<>();
+        schedules.add(config.getDefaultSchedule());
+        schedules.addAll(config.getExtraSchedules());
+        for (ReminderSchedule schedule : schedules) {
+            String qualifiedName = session.getUserId() + NAME_SEPARATOR + schedule.getName();
+            engine.add(new ReminderSchedule(qualifiedName, schedule.getIntervalMillis(), schedule.getText(),
+                            schedule.getChannels(), schedule.getSound()),
+                    config.getCatchUpPolicy(), schedule.getIntervalMillis());
+            session.getScheduleNames().add(qualifiedName);
+        }
+        session.setSittingSince(LocalDateTime.now());
+    }
+
+    // 从共享引擎中取消用户的所有提醒计划，调用方需持有该用户的锁
+    private void unscheduleUser(UserSession session) {
+        for (String name : session.getScheduleNames()) {
+            engine.cancel(name);
+        }
+        session.getScheduleNames().clear();
+    }
+
+    // 保存用户配置和提醒记录，调用方需持有该用户的锁
+    private void saveUser(UserSession session) {
+        try {
+            session.getConfiguration().saveConfiguration();
+            session.getConfiguration().saveReminderRecords();
+        } catch (Exception e) {
+            System.err.println("保存用户" + session.getUserId() + "的数据失败：" + e.getMessage());
+        }
+    }
+
+    // 引擎回调：找到对应用户，记录久坐时段并投递提醒
+    private void onReminder(ReminderSchedule qualified) {
+        String name = qualified.getName();
+        int separator = name.indexOf(NAME_SEPARATOR);
+        String userId = name.substring(0, separator);
+        UserSession session = sessions.get(userId);
+        if (session == null) {
+            return; // 用户已被移除
+        }
+        ReminderSchedule schedule = new ReminderSchedule(name.substring(separator + 1),
+                qualified.getIntervalMillis(), qualified.getText(), qualified.getChannels(), qualified.getSound());
+
+        synchronized (lockFor(userId)) {
+            // 默认的久坐提醒结束当前这段久坐，生成一条提醒记录
+            if (ReminderSchedule.DEFAULT_NAME.equals(schedule.getName())) {
+                LocalDateTime now = LocalDateTime.now();
+                Configuration config = session.getConfiguration();
+                config.addReminderRecord(new ReminderRecord(session.getSittingSince(), now, ReminderRecord.FLAG_TRIGGERED));
+                config.saveReminderRecords();
+                session.setSittingSince(now);
+            }
+        }
+
+        try {
+            sink.deliver(session, schedule);
+        } catch (Exception e) {
+            System.err.println("向用户" + userId + "投递提醒失败：" + e.getMessage());
+        }
+    }
+}
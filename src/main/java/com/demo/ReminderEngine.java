@@ -0,0 +1,292 @@
+package com.demo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 多计划提醒引擎。
+ * 所有提醒计划保存在按下次检查时间排序的索引最小堆中，
+ * 添加、重新调度和取消的复杂度均为O(log n)，
+ * 由单个唤醒线程等待堆顶到期，可以在一个JVM中承载成千上万个计划。
+ */
+public class ReminderEngine {
+    /**
+     * 提醒触发回调，在引擎线程中执行，耗时操作请自行转交其他线程
+     */
+    public interface Listener {
+        void onReminder(ReminderSchedule schedule);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Listener listener;
+    private final ReminderClock.CatchUpPolicy defaultPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Thread worker;
+
+    // 索引最小堆，每个条目记录自己在堆中的位置
+    private Entry[] heap = new Entry[INITIAL_CAPACITY];
+    private int size;
+    private volatile boolean shutdown;
+
+    public ReminderEngine(String name, Listener listener, ReminderClock.CatchUpPolicy defaultPolicy) {
+        this.listener = listener;
+        this.defaultPolicy = defaultPolicy;
+        worker = new Thread(this::runWorker, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // 添加提醒计划，首次提醒在一个完整间隔之后；同名计划会被替换
+    public void add(ReminderSchedule schedule) {
+        add(schedule, defaultPolicy, schedule.getIntervalMillis());
+    }
+
+    /**
+     * 添加提醒计划，同名计划会被替换
+     * @param schedule 提醒计划
+     * @param policy 错过提醒时的补偿策略
+     * @param firstDelayMillis 首次提醒前的延迟（毫秒）
+     */
+    public void add(ReminderSchedule schedule, ReminderClock.CatchUpPolicy policy, long firstDelayMillis) {
+        ReminderClock clock = new ReminderClock(schedule.getIntervalMillis(), policy);
+        clock.start(firstDelayMillis);
+        lock.lock();
+        try {
+            Entry old = entries.remove(schedule.getName());
+            if (old != null) {
+                removeAt(old.heapIndex);
+            }
+            Entry entry = new Entry(schedule, clock);
+            entry.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(clock.nextCheckDelayMillis());
+            entries.put(schedule.getName(), entry);
+            offer(entry);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 修改已有计划的提醒间隔，从现在开始重新计时
+    public boolean reschedule(String name, long newIntervalMillis) {
+        ReminderSchedule schedule;
+        ReminderClock.CatchUpPolicy policy;
+        lock.lock();
+        try {
+            Entry entry = entries.get(name);
+            if (entry == null) {
+                return false;
+            }
+            schedule = entry.schedule.withInterval(newIntervalMillis);
+            policy = entry.clock.getPolicy();
+        } finally {
+            lock.unlock();
+        }
+        add(schedule, policy, newIntervalMillis);
+        return true;
+    }
+
+    // 取消提醒计划
+    public boolean cancel(String name) {
+        lock.lock();
+        try {
+            Entry entry = entries.remove(name);
+            if (entry == null) {
+                return false;
+            }
+            removeAt(entry.heapIndex);
+            changed.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 取消所有提醒计划
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(String name) {
+        lock.lock();
+        try {
+            return entries.containsKey(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 当前所有提醒计划的副本
+    public List<ReminderSchedule> getSchedules() {
+        lock.lock();
+        try {
+            List<ReminderSchedule> schedules = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                schedules.add(entry.schedule);
+            }
+            return schedules;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // 获取指定计划距离下次提醒的剩余时间（毫秒），计划不存在时返回-1
+    public long getRemainingMillis(String name) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(name);
+            return entry == null ? -1 : entry.clock.getRemainingMillis();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 停止引擎线程
+    public void shutdown() {
+        shutdown = true;
+        worker.interrupt();
+    }
+
+    // 引擎线程主循环：等待堆顶到期，检查时钟并触发提醒
+    private void runWorker() {
+        List<ReminderSchedule> due = new ArrayList<>();
+        while (!shutdown) {
+            lock.lock();
+            try {
+                while (size == 0) {
+                    changed.await();
+                }
+                long waitNanos = heap[0].deadlineNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+                // 取出所有已到期的计划，逐个检查后按新的检查时间放回堆中
+                long now = System.nanoTime();
+                while (size > 0 && heap[0].deadlineNanos - now <= 0) {
+                    Entry entry = heap[0];
+                    if (entry.clock.poll()) {
+                        due.add(entry.schedule);
+                    }
+                    entry.deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(entry.clock.nextCheckDelayMillis());
+                    siftDown(0);
+                }
+            } catch (InterruptedException e) {
+                if (shutdown) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            for (ReminderSchedule schedule : due) {
+                try {
+                    listener.onReminder(schedule);
+                } catch (Exception e) {
+                    System.err.println("提醒计划" + schedule.getName() + "触发失败：" + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+            due.clear();
+        }
+    }
+
+    // 以下为索引最小堆操作，调用方需持有锁
+
+    private void offer(Entry entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entry.heapIndex = size;
+        heap[size++] = entry;
+        siftUp(entry.heapIndex);
+    }
+
+    private void removeAt(int index) {
+        Entry removed = heap[index];
+        size--;
+        if (index != size) {
+            heap[index] = heap[size];
+            heap[index].heapIndex = index;
+            heap[size] = null;
+            siftDown(index);
+            siftUp(index);
+        } else {
+            heap[size] = null;
+        }
+        removed.heapIndex = -1;
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].deadlineNanos - entry.deadlineNanos <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].heapIndex = index;
+            index = parent;
+        }
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].deadlineNanos - heap[child].deadlineNanos < 0) {
+                child = right;
+            }
+            if (entry.deadlineNanos - heap[child].deadlineNanos <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].heapIndex = index;
+            index = child;
+        }
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+
+    // 堆中的一个条目
+    private static final class Entry {
+        private final ReminderSchedule schedule;
+        private final ReminderClock clock;
+        private long deadlineNanos; // 下次检查的单调时间
+        private int heapIndex;
+
+        Entry(ReminderSchedule schedule, ReminderClock clock) {
+            this.schedule = schedule;
+            this.clock = clock;
+        }
+    }
+}
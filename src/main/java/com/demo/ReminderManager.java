@@ -4,18 +4,37 @@ import com.sun.jna.Native;
 import com.sun.jna.platform.win32.User32;
 import com.sun.jna.platform.win32.WinDef;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ReminderManager {
     private static ReminderManager instance;
-    private Timer timer;
+    private final ReminderEngine engine;
     private AtomicBoolean isRunning = new AtomicBoolean(false);
     private Configuration config;
+    // 尚未播放完的全屏模式提示音数量，为0时解除闪避
+    private final AtomicInteger duckedSounds = new AtomicInteger();
+    // 用户离开期间暂停的提醒计划及其剩余时间
+    private final Map<String, ReminderSchedule> pausedSchedules = new LinkedHashMap<>();
+    private final Map<String, Long> pausedRemaining = new HashMap<>();
+    private final IdleDetector.Listener idleListener = new IdleDetector.Listener() {
+        @Override
+        public void onAway(long idleMillis) {
+            pauseForAway(idleMillis);
+        }
+        
+        @Override
+        public void onReturn(long awayMillis) {
+            resumeAfterAway();
+        }
+    };
     
     private ReminderManager() {
         config = Configuration.getInstance();
+        engine = new ReminderEngine("reminder-engine", this::checkAndRemind, config.getCatchUpPolicy());
     }
     
     public static synchronized ReminderManager getInstance() {
@@ -26,43 +45,83 @@ public class ReminderManager {
     }
     
     // 启动提醒服务
-    public void startReminder() {
+    public synchronized void startReminder() {
         if (isRunning.get()) {
             stopReminder();
         }
         
         isRunning.set(true);
-        timer = new Timer(true); // 守护线程
         
-        // 设置定时器，按照用户配置的时间间隔触发提醒
+        // 默认的久坐提醒立即开始，之后按照用户配置的时间间隔触发
         long delay = 0; // 立即开始
-        long period = config.getReminderInterval() * 60 * 1000; // 转换为毫秒
+        engine.add(config.getDefaultSchedule(), config.getCatchUpPolicy(), delay);
         
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                checkAndRemind();
-            }
-        }, delay, period);
+        // 额外的提醒计划在一个完整间隔后首次触发
+        for (ReminderSchedule schedule : config.getExtraSchedules()) {
+            engine.add(schedule, config.getCatchUpPolicy(), schedule.getIntervalMillis());
+        }
+        
+        // 用户离开时暂停提醒，避免对着空座位提醒
+        IdleDetector.getInstance().addListener(idleListener);
     }
     
     // 停止提醒服务
-    public void stopReminder() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
-        }
+    public synchronized void stopReminder() {
+        IdleDetector.getInstance().removeListener(idleListener);
+        engine.clear();
+        pausedSchedules.clear();
+        pausedRemaining.clear();
         isRunning.set(false);
     }
     
+    // 在运行中添加或替换一个提醒计划
+    public void addSchedule(ReminderSchedule schedule) {
+        engine.add(schedule, config.getCatchUpPolicy(), schedule.getIntervalMillis());
+    }
+    
+    // 取消一个提醒计划
+    public synchronized boolean cancelSchedule(String name) {
+        boolean paused = pausedSchedules.remove(name) != null;
+        pausedRemaining.remove(name);
+        return engine.cancel(name) || paused;
+    }
+    
+    // 用户离开：暂停所有计划，记下扣除空闲时间后的剩余时间
+    private synchronized void pauseForAway(long idleMillis) {
+        if (!isRunning.get()) {
+            return;
+        }
+        for (ReminderSchedule schedule : engine.getSchedules()) {
+            long remaining = engine.getRemainingMillis(schedule.getName());
+            pausedSchedules.put(schedule.getName(), schedule);
+            pausedRemaining.put(schedule.getName(),
+                    Math.min(schedule.getIntervalMillis(), Math.max(0, remaining) + idleMillis));
+        }
+        engine.clear();
+    }
+    
+    // 用户回来：按配置继续剩余时间或重新开始计时
+    private synchronized void resumeAfterAway() {
+        if (!isRunning.get() || pausedSchedules.isEmpty()) {
+            return;
+        }
+        boolean reset = config.getIdleAction() == IdleDetector.IdleAction.RESET;
+        for (ReminderSchedule schedule : pausedSchedules.values()) {
+            long delay = reset ? schedule.getIntervalMillis() : pausedRemaining.get(schedule.getName());
+            engine.add(schedule, config.getCatchUpPolicy(), delay);
+        }
+        pausedSchedules.clear();
+        pausedRemaining.clear();
+    }
+    
     // 检查是否需要提醒并触发提醒
-    private void checkAndRemind() {
+    private void checkAndRemind(ReminderSchedule schedule) {
         if (isFullScreenMode()) {
             // 全屏模式下的提醒
-            notifyInFullScreenMode();
+            notifyInFullScreenMode(schedule);
         } else {
             // 非全屏模式下的提醒
-            notifyInNormalMode();
+            notifyInNormalMode(schedule);
         }
     }
     
@@ -97,51 +156,70 @@ public class ReminderManager {
     }
     
     // 全屏模式下的提醒
-    private void notifyInFullScreenMode() {
+    private void notifyInFullScreenMode(ReminderSchedule schedule) {
         // 在JavaFX应用线程中执行UI操作
         javafx.application.Platform.runLater(() -> {
             Configuration config = Configuration.getInstance();
             
             // 显示短暂弹窗
-            if (config.isPopupEnabled()) {
-                ReminderPopup.showTemporaryPopup(config.getReminderText(), config.getPopupDuration());
+            if (schedule.hasChannel(ReminderChannel.POPUP)) {
+                ReminderPopup.showTemporaryPopup(schedule.getText(), config.getPopupDuration());
             }
             
             // 屏幕边缘闪烁
-            if (config.isFlashEnabled()) {
+            if (schedule.hasChannel(ReminderChannel.FLASH)) {
                 ScreenFlasher.flashEdges(config.getFlashEdges(), config.getFlashCount());
             }
             
             // 播放轻微提示音
-            if (config.isSoundEnabled()) {
-                SoundPlayer.playSound(config.getSoundFile(), true); // true表示降低音量
+            if (schedule.hasChannel(ReminderChannel.SOUND)) {
+                playDuckedSound(soundFor(schedule));
             }
         });
     }
     
     // 非全屏模式下的提醒
-    private void notifyInNormalMode() {
+    private void notifyInNormalMode(ReminderSchedule schedule) {
         // 在JavaFX应用线程中执行UI操作
         javafx.application.Platform.runLater(() -> {
             Configuration config = Configuration.getInstance();
             
             // 显示常规弹窗（可以是置顶的）
-            ReminderPopup.showNormalPopup(config.getReminderText());
+            if (schedule.hasChannel(ReminderChannel.POPUP)) {
+                ReminderPopup.showNormalPopup(schedule.getText());
+            }
             
             // 播放正常音量的提示音
-            if (config.isSoundEnabled()) {
-                SoundPlayer.playSound(config.getSoundFile(), false); // false表示正常音量
+            if (schedule.hasChannel(ReminderChannel.SOUND)) {
+                SoundPlayer.playSound(soundFor(schedule), false); // false表示正常音量
             }
         });
     }
     
+    // 全屏模式下通过闪避压低音量：正在播放的声音和本次提示音一起平滑降低，提示音播放完后恢复
+    private void playDuckedSound(String soundFilePath) {
+        AudioEngine audioEngine = AudioEngine.getInstance();
+        duckedSounds.incrementAndGet();
+        audioEngine.setDuck(AudioEngine.DEFAULT_DUCK_DB);
+        SoundPlayer.playSound(soundFilePath, false, (playback, interrupted) -> {
+            if (duckedSounds.decrementAndGet() == 0) {
+                audioEngine.setDuck(0f);
+            }
+        });
+    }
+    
+    // 计划专用的提示音优先，否则使用全局设置
+    private String soundFor(ReminderSchedule schedule) {
+        return schedule.getSound() != null ? schedule.getSound() : config.getSoundFile();
+    }
+    
     // 检查是否正在运行
     public boolean isRunning() {
         return isRunning.get();
     }
     
     // 重新启动提醒服务（当配置变更时调用）
-    public void restartReminder() {
+    public synchronized void restartReminder() {
         if (isRunning.get()) {
             stopReminder();
             startReminder();
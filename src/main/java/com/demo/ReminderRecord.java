@@ -1,7 +1,9 @@
 package com.demo;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -9,23 +11,52 @@ import java.time.format.DateTimeFormatter;
  */
 public class ReminderRecord implements Serializable {
     private static final long serialVersionUID = 1L;
+    // 记录标志位
+    public static final int FLAG_TRIGGERED = 1; // 由提醒触发结束
+    public static final int FLAG_STOPPED = 2;   // 由用户手动停止结束
+    public static final int FLAG_IDLE = 4;      // 因用户离开结束，结束时间为离开前最后一次输入
+    
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private long durationMinutes;
+    private int flags; // 旧版本序列化数据中没有该字段，反序列化后为0
+    // 格式化结果缓存，首次显示时生成
+    private transient String startTimeString;
+    private transient String endTimeString;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     public ReminderRecord(LocalDateTime startTime, LocalDateTime endTime) {
+        this(startTime, endTime, 0);
+    }
+    
+    public ReminderRecord(LocalDateTime startTime, LocalDateTime endTime, int flags) {
         this.startTime = startTime;
         this.endTime = endTime;
         this.durationMinutes = java.time.Duration.between(startTime, endTime).toMinutes();
+        this.flags = flags;
+    }
+    
+    // 从以秒为单位的时间戳创建记录（按系统默认时区换算）
+    public static ReminderRecord ofEpochSeconds(long startEpochSecond, long endEpochSecond, int flags) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new ReminderRecord(
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(startEpochSecond), zone),
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(endEpochSecond), zone),
+                flags);
     }
     
     public String getStartTimeString() {
-        return startTime.format(FORMATTER);
+        if (startTimeString == null) {
+            startTimeString = startTime.format(FORMATTER);
+        }
+        return startTimeString;
     }
     
     public String getEndTimeString() {
-        return endTime.format(FORMATTER);
+        if (endTimeString == null) {
+            endTimeString = endTime.format(FORMATTER);
+        }
+        return endTimeString;
     }
     
     public long getDurationMinutes() {
@@ -56,4 +87,16 @@ public class ReminderRecord implements Serializable {
     public LocalDateTime getEndTime() {
         return endTime;
     }
+    
+    public int getFlags() {
+        return flags;
+    }
+    
+    public long getStartEpochSecond() {
+        return startTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+    
+    public long getEndEpochSecond() {
+        return endTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.demo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的二进制提醒记录日志。
+ * 文件由一个带CRC32校验的32字节文件头和若干定长24字节记录组成，
+ * 每条新记录只需一次小的FileChannel追加写入，读取时通过内存映射遍历。
+ *
+ * 文件头：magic(4) version(2) recordSize(2) createdEpochSecond(8) reserved(12) crc32(4)
+ * 记录：startEpochSecond(8) endEpochSecond(8) flags(4) reserved(4)
+ */
+public class ReminderRecordLog implements Closeable {
+    public static final int MAGIC = 0x53524C47; // "SRLG"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int RECORD_SIZE = 24;
+
+    /**
+     * 逐条访问记录的回调，直接提供原始字段，避免为每条记录创建对象
+     */
+    public interface RecordVisitor {
+        void visit(long startEpochSecond, long endEpochSecond, int flags);
+    }
+
+    private final Path path;
+    private final FileChannel writeChannel;
+    // 复用的单条记录写缓冲区，调用方需保证串行追加
+    private final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private ReminderRecordLog(Path path, FileChannel writeChannel) {
+        this.path = path;
+        this.writeChannel = writeChannel;
+    }
+
+    /**
+     * 打开日志文件，不存在时创建并写入文件头；
+     * 文件末尾不完整的记录（例如写入时断电）会被截掉
+     */
+    public static ReminderRecordLog open(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                writeHeader(channel);
+            } else {
+                checkHeader(channel, path);
+                long tail = (size - HEADER_SIZE) % RECORD_SIZE;
+                if (tail != 0) {
+                    System.err.println("提醒记录日志末尾存在不完整记录，已截断：" + path);
+                    channel.truncate(size - tail);
+                }
+            }
+        }
+        FileChannel writeChannel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new ReminderRecordLog(path, writeChannel);
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) RECORD_SIZE);
+        header.putLong(System.currentTimeMillis() / 1000);
+        header.position(HEADER_SIZE - 4);
+        header.putInt(headerChecksum(header));
+        header.flip();
+        channel.write(header, 0);
+        channel.force(true);
+    }
+
+    private static void checkHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.read(header, 0) != HEADER_SIZE) {
+            throw new IOException("提醒记录日志文件头不完整：" + path);
+        }
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("不是提醒记录日志文件：" + path);
+        }
+        if (header.getInt(HEADER_SIZE - 4) != headerChecksum(header)) {
+            throw new IOException("提醒记录日志文件头校验失败：" + path);
+        }
+        if (header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+            throw new IOException("不支持的提醒记录日志版本：" + header.getShort(4));
+        }
+    }
+
+    // 计算文件头除校验字段以外部分的CRC32
+    private static int headerChecksum(ByteBuffer header) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = header.duplicate();
+        body.position(0).limit(HEADER_SIZE - 4);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    // 追加一条记录
+    public synchronized void append(ReminderRecord record) throws IOException {
+        append(record.getStartEpochSecond(), record.getEndEpochSecond(), record.getFlags());
+    }
+
+    // 追加一条记录
+    public synchronized void append(long startEpochSecond, long endEpochSecond, int flags) throws IOException {
+        recordBuffer.clear();
+        recordBuffer.putLong(startEpochSecond).putLong(endEpochSecond).putInt(flags).putInt(0);
+        recordBuffer.flip();
+        while (recordBuffer.hasRemaining()) {
+            writeChannel.write(recordBuffer);
+        }
+    }
+
+    // 批量追加记录，合并成一次写入
+    public synchronized void appendAll(List<ReminderRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteBuffer batch = ByteBuffer.allocate(records.size() * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (ReminderRecord record : records) {
+            batch.putLong(record.getStartEpochSecond()).putLong(record.getEndEpochSecond()).putInt(record.getFlags()).putInt(0);
+        }
+        batch.flip();
+        while (batch.hasRemaining()) {
+            writeChannel.write(batch);
+        }
+    }
+
+    // 将已写入的数据刷到磁盘
+    public synchronized void force() throws IOException {
+        writeChannel.force(false);
+    }
+
+    // 清空所有记录，只保留文件头
+    public synchronized void clear() throws IOException {
+        writeChannel.truncate(HEADER_SIZE);
+        writeChannel.force(false);
+    }
+
+    // 当前记录条数
+    public synchronized long size() throws IOException {
+        return (writeChannel.size() - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    // 通过内存映射依次访问所有记录
+    public void forEach(RecordVisitor visitor) throws IOException {
+        forEach(0, visitor);
+    }
+
+    // 通过内存映射依次访问从指定下标开始的记录
+    public void forEach(long fromIndex, RecordVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            visit(channel, fromIndex, visitor);
+        }
+    }
+
+    /**
+     * 以只读方式访问日志文件中的记录，不会创建文件、写入文件头或截断末尾不完整的记录
+     */
+    public static void read(Path path, RecordVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            checkHeader(channel, path);
+            visit(channel, 0, visitor);
+        }
+    }
+
+    private static void visit(FileChannel channel, long fromIndex, RecordVisitor visitor) throws IOException {
+        long count = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        if (fromIndex >= count) {
+            return;
+        }
+        long offset = HEADER_SIZE + fromIndex * RECORD_SIZE;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, (count - fromIndex) * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.remaining() >= RECORD_SIZE) {
+            long start = buffer.getLong();
+            long end = buffer.getLong();
+            int flags = buffer.getInt();
+            buffer.getInt(); // 保留字段
+            visitor.visit(start, end, flags);
+        }
+    }
+
+    // 读取所有记录
+    public List<ReminderRecord> readAll() throws IOException {
+        List<ReminderRecord> records = new ArrayList<>();
+        forEach((start, end, flags) -> records.add(ReminderRecord.ofEpochSeconds(start, end, flags)));
+        return records;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writeChannel.close();
+    }
+}
@@ -0,0 +1,100 @@
+package com.demo;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将旧版本以Java序列化保存的reminder_records.dat一次性迁移到二进制记录日志。
+ * 迁移完成后旧文件被重命名为reminder_records.dat.migrated，不会重复迁移。
+ * 新日志完整写好并刷盘后才创建完成标记，之后的替换和重命名都可以在下次启动时安全地续做，
+ * 不会因为中途退出而丢失或重复记录。
+ */
+public class ReminderRecordMigrator {
+    public static final String LEGACY_FILE_NAME = "reminder_records.dat";
+    public static final String MIGRATED_SUFFIX = ".migrated";
+    // 完成标记：存在时说明临时日志已经完整写好，只差替换到位
+    private static final String COMPLETE_MARKER_SUFFIX = ".complete";
+    // 每批写入日志的记录数
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * 如果配置目录中存在旧格式的记录文件，将其中的记录写入新的日志文件。
+     * 先写入临时文件再原子重命名，中途失败不会留下半份日志。
+     * 需要在打开日志之前调用。
+     * @return 迁移的记录条数，没有需要迁移的文件时返回0
+     */
+    public static int migrateIfNeeded(Path configDirectory, Path logPath) {
+        Path legacyFile = configDirectory.resolve(LEGACY_FILE_NAME);
+        Path marker = configDirectory.resolve(LEGACY_FILE_NAME + COMPLETE_MARKER_SUFFIX);
+        if (!Files.isRegularFile(legacyFile)) {
+            try {
+                Files.deleteIfExists(marker); // 上次迁移在删除标记前退出
+            } catch (IOException e) {
+                System.err.println("删除迁移完成标记失败：" + e.getMessage());
+            }
+            return 0;
+        }
+        Path migratedFile = configDirectory.resolve(LEGACY_FILE_NAME + MIGRATED_SUFFIX);
+        Path tempLog = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+        try {
+            int migrated = 0;
+            if (!Files.exists(marker)) {
+                Files.deleteIfExists(tempLog);
+                try (ReminderRecordLog log = ReminderRecordLog.open(tempLog)) {
+                    if (Files.size(legacyFile) > 0) {
+                        migrated = copyRecords(legacyFile, log);
+                    }
+                    // 上次迁移失败后日志里可能已经有新记录，接在旧记录之后一起保留
+                    if (Files.exists(logPath)) {
+                        try (ReminderRecordLog existing = ReminderRecordLog.open(logPath)) {
+                            log.appendAll(existing.readAll());
+                        }
+                    }
+                    log.force();
+                }
+                Files.createFile(marker);
+            }
+            // 有完成标记时以下步骤都可以重复执行
+            if (Files.exists(tempLog)) {
+                Files.move(tempLog, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.move(legacyFile, migratedFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(marker);
+            System.out.println("已将" + migrated + "条旧格式提醒记录迁移到" + logPath);
+            return migrated;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // 迁移失败时保留旧文件，下次启动时再尝试
+            System.err.println("迁移旧格式提醒记录失败：" + e.getMessage());
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    // 从旧文件读出记录列表，分批追加到日志
+    private static int copyRecords(Path legacyFile, ReminderRecordLog log) throws IOException, ClassNotFoundException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(legacyFile));
+             ObjectInputStream ois = new ObjectInputStream(input)) {
+            // 旧格式把整个列表序列化为一个对象，只能整体读出
+            List<?> records = (List<?>) ois.readObject();
+            List<ReminderRecord> batch = new ArrayList<>(BATCH_SIZE);
+            int count = 0;
+            for (Object item : records) {
+                batch.add((ReminderRecord) item);
+                if (batch.size() == BATCH_SIZE) {
+                    log.appendAll(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            log.appendAll(batch);
+            return count + batch.size();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.demo;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 一个命名的提醒计划，例如"起身活动"、"远眺休息"、"喝水"等，
+ * 每个计划有自己的提醒间隔、提醒文案和提醒方式
+ */
+public class ReminderSchedule {
+    // 默认的久坐提醒计划名称
+    public static final String DEFAULT_NAME = "stand-up";
+
+    private final String name;
+    private final long intervalMillis;
+    private final String text;
+    private final Set<ReminderChannel> channels;
+    private final String sound; // 该计划专用的提示音，为null时使用全局设置
+
+    public ReminderSchedule(String name, long intervalMillis, String text, Set<ReminderChannel> channels) {
+        this(name, intervalMillis, text, channels, null);
+    }
+
+    public ReminderSchedule(String name, long intervalMillis, String text, Set<ReminderChannel> channels, String sound) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("提醒计划名称不能为空");
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("提醒间隔必须大于0：" + intervalMillis);
+        }
+        this.name = name.trim();
+        this.intervalMillis = intervalMillis;
+        this.text = text;
+        this.channels = channels == null || channels.isEmpty()
+                ? Collections.unmodifiableSet(EnumSet.noneOf(ReminderChannel.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(channels));
+        this.sound = sound == null || sound.trim().isEmpty() ? null : sound.trim();
+    }
+
+    // 以分钟为单位创建提醒计划
+    public static ReminderSchedule ofMinutes(String name, int intervalMinutes, String text, Set<ReminderChannel> channels) {
+        return new ReminderSchedule(name, intervalMinutes * 60 * 1000L, text, channels);
+    }
+
+    // 返回修改了提醒间隔的新计划
+    public ReminderSchedule withInterval(long newIntervalMillis) {
+        return new ReminderSchedule(name, newIntervalMillis, text, channels, sound);
+    }
+
+    // 返回使用指定提示音的新计划，可以是声音文件路径或"tone:名称"
+    public ReminderSchedule withSound(String newSound) {
+        return new ReminderSchedule(name, intervalMillis, text, channels, newSound);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Set<ReminderChannel> getChannels() {
+        return channels;
+    }
+
+    public String getSound() {
+        return sound;
+    }
+
+    public boolean hasChannel(ReminderChannel channel) {
+        return channels.contains(channel);
+    }
+
+    @Override
+    public String toString() {
+        return name + "（每" + intervalMillis / 60000 + "分钟，" + ReminderChannel.format(channels) + "）";
+    }
+}
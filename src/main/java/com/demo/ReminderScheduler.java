@@ -0,0 +1,268 @@
+package com.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全局共享的定时调度服务，基于哈希时间轮实现。
+ * 所有倒计时、提醒触发和弹窗自动关闭都通过这里调度，
+ * 整个进程只有一个守护线程，调度和取消的复杂度均为O(1)。
+ * 工作线程只在最近的任务到期时醒来，没有任务时一直等待，空闲时不会逐格空转。
+ */
+public class ReminderScheduler {
+    // 时间轮每一格的时长（毫秒）
+    private static final long TICK_MILLIS = 100;
+    // 时间轮格数，必须是2的幂
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static ReminderScheduler instance;
+
+    private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+    private final Object lock = new Object();
+    private final long startNanos;
+    private final Thread worker;
+    // 工作线程已经处理到的格子序号
+    private long currentTick;
+    // 工作线程正在等待的格子序号，新任务更早到期时需要唤醒它
+    private long plannedTick = Long.MAX_VALUE;
+    private long wakeups; // 工作线程的唤醒次数
+
+    private ReminderScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Bucket();
+        }
+        startNanos = System.nanoTime();
+        worker = new Thread(this::runWorker, "reminder-scheduler");
+        worker.setDaemon(true); // 守护线程，不阻止JVM退出
+        worker.start();
+    }
+
+    public static synchronized ReminderScheduler getInstance() {
+        if (instance == null) {
+            instance = new ReminderScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * 延迟执行一次任务
+     * @param task 要执行的任务，应当尽快返回（UI操作请转交给Platform.runLater）
+     * @param delayMillis 延迟时间（毫秒）
+     * @return 可用于取消的任务句柄
+     */
+    public Task schedule(Runnable task, long delayMillis) {
+        Task handle = new Task(task, 0);
+        insert(handle, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+        return handle;
+    }
+
+    /**
+     * 按固定周期重复执行任务。错过的周期会被直接跳过，不会集中补执行。
+     * @param task 要执行的任务
+     * @param initialDelayMillis 首次执行前的延迟（毫秒）
+     * @param periodMillis 执行周期（毫秒）
+     * @return 可用于取消的任务句柄
+     */
+    public Task scheduleRepeating(Runnable task, long initialDelayMillis, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("执行周期必须大于0：" + periodMillis);
+        }
+        Task handle = new Task(task, TimeUnit.MILLISECONDS.toNanos(periodMillis));
+        insert(handle, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialDelayMillis)));
+        return handle;
+    }
+
+    // 将任务放入时间轮对应的格子
+    private void insert(Task task, long deadlineNanos) {
+        synchronized (lock) {
+            if (task.cancelled) {
+                return;
+            }
+            long tick = (deadlineNanos - startNanos + tickNanos - 1) / tickNanos;
+            // 已经过期的任务放到下一格立即执行
+            if (tick <= currentTick) {
+                tick = currentTick + 1;
+            }
+            task.deadlineNanos = deadlineNanos;
+            task.deadlineTick = tick;
+            wheel[(int) (tick & WHEEL_MASK)].add(task);
+            if (tick < plannedTick) {
+                lock.notify();
+            }
+        }
+    }
+
+    // 工作线程的唤醒次数
+    public long getWakeupCount() {
+        synchronized (lock) {
+            return wakeups;
+        }
+    }
+
+    // 启动以来平均每小时的唤醒次数
+    public double getWakeupsPerHour() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return elapsedNanos <= 0 ? 0 : getWakeupCount() * (double) TimeUnit.HOURS.toNanos(1) / elapsedNanos;
+    }
+
+    // 工作线程主循环：等待到最近的任务到期，再推进时间轮并执行到期任务
+    private void runWorker() {
+        List<Task> expired = new ArrayList<>();
+        while (true) {
+            synchronized (lock) {
+                try {
+                    while (true) {
+                        long target = earliestTick();
+                        if (target == Long.MAX_VALUE) {
+                            plannedTick = target;
+                            lock.wait();
+                            wakeups++;
+                            continue;
+                        }
+                        long waitNanos = startNanos + target * tickNanos - System.nanoTime();
+                        if (waitNanos <= 0) {
+                            break;
+                        }
+                        plannedTick = target;
+                        TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                        wakeups++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                plannedTick = Long.MAX_VALUE;
+                advanceTo((System.nanoTime() - startNanos) / tickNanos, expired);
+            }
+
+            for (Task task : expired) {
+                if (task.cancelled) {
+                    continue;
+                }
+                try {
+                    task.runnable.run();
+                } catch (Exception e) {
+                    System.err.println("定时任务执行失败：" + e.getMessage());
+                    e.printStackTrace();
+                }
+                if (task.periodNanos > 0 && !task.cancelled) {
+                    // 以上一次的计划时间为基准推进，落后时直接跳到下一个周期
+                    long next = task.deadlineNanos + task.periodNanos;
+                    long now = System.nanoTime();
+                    if (next - now < 0) {
+                        next = now + task.periodNanos;
+                    }
+                    insert(task, next);
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    // 所有任务中最早到期的格子序号，没有任务时返回Long.MAX_VALUE
+    private long earliestTick() {
+        long earliest = Long.MAX_VALUE;
+        for (Bucket bucket : wheel) {
+            for (Task task = bucket.head; task != null; task = task.next) {
+                earliest = Math.min(earliest, task.deadlineTick);
+            }
+        }
+        return earliest;
+    }
+
+    // 推进到指定格子，取出途经格子中所有已到期的任务；跨度超过一圈时每个格子只需检查一次
+    private void advanceTo(long tick, List<Task> expired) {
+        if (tick <= currentTick) {
+            return;
+        }
+        long from = tick - currentTick >= WHEEL_SIZE ? tick - WHEEL_SIZE + 1 : currentTick + 1;
+        for (long t = from; t <= tick; t++) {
+            wheel[(int) (t & WHEEL_MASK)].expire(tick, expired);
+        }
+        currentTick = tick;
+    }
+
+    /**
+     * 已调度任务的句柄
+     */
+    public final class Task {
+        private final Runnable runnable;
+        private final long periodNanos;
+        private long deadlineNanos;
+        private long deadlineTick;
+        private volatile boolean cancelled;
+        // 所在格子的双向链表指针
+        private Bucket bucket;
+        private Task prev;
+        private Task next;
+
+        private Task(Runnable runnable, long periodNanos) {
+            this.runnable = runnable;
+            this.periodNanos = periodNanos;
+        }
+
+        // 取消任务，已经开始执行的本次任务不受影响
+        public void cancel() {
+            synchronized (lock) {
+                cancelled = true;
+                if (bucket != null) {
+                    bucket.remove(this);
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    // 时间轮的一个格子，使用双向链表保存任务以支持O(1)取消
+    private static final class Bucket {
+        private Task head;
+        private Task tail;
+
+        void add(Task task) {
+            task.bucket = this;
+            task.prev = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void remove(Task task) {
+            if (task.prev == null) {
+                head = task.next;
+            } else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            } else {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.prev = null;
+            task.next = null;
+        }
+
+        // 取出所有在当前格到期的任务，未到期的（后续轮次）保留
+        void expire(long tick, List<Task> expired) {
+            Task task = head;
+            while (task != null) {
+                Task next = task.next;
+                if (task.deadlineTick <= tick) {
+                    remove(task);
+                    expired.add(task);
+                }
+                task = next;
+            }
+        }
+    }
+}
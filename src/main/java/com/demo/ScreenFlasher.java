@@ -1,105 +1,179 @@
 package com.demo;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.Duration;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * 屏幕边缘闪烁。
+ * 每个显示器的每个边缘对应一个预先创建并反复使用的透明窗口，闪烁由一个Timeline在JavaFX脉冲中切换显示，
+ * 不再为每次提醒创建窗口和休眠线程。以下静态状态只在JavaFX应用线程中访问。
+ */
 public class ScreenFlasher {
     // 闪烁边缘的宽度（像素）
     private static final int FLASH_EDGE_WIDTH = 10;
     // 闪烁的速度（毫秒）
     private static final int FLASH_INTERVAL = 200;
-    
-    // 闪烁屏幕边缘
+    private static final String[] EDGES = {"top", "bottom", "left", "right"};
+
+    // 窗口池，键为"显示器序号:边缘"
+    private static final Map<String, Stage> STAGES = new HashMap<>();
+    private static int placedVersion = -1; // 窗口池对应的显示器布局版本
+    // 本次闪烁正在使用的窗口
+    private static final List<Stage> activeStages = new ArrayList<>();
+    private static Timeline timeline;
+    private static boolean visible;
+
+    // 预先创建所有显示器所有边缘的窗口，首次提醒时无需等待
+    public static void prepare() {
+        Platform.runLater(() -> {
+            List<Rectangle2D> screens = ScreenGeometry.getAllBounds();
+            for (int i = 0; i < screens.size(); i++) {
+                for (String edge : EDGES) {
+                    stageFor(i, edge);
+                }
+            }
+        });
+    }
+
+    // 闪烁屏幕边缘，正在进行的闪烁会被新的请求替换
     public static void flashEdges(List<String> edges, int flashCount) {
         Platform.runLater(() -> {
-            // 获取屏幕信息
-            javafx.geometry.Rectangle2D screenBounds = javafx.stage.Screen.getPrimary().getVisualBounds();
-            
-            // 为每个边缘创建一个闪烁的窗口
-            for (String edge : edges) {
-                flashEdge(screenBounds, edge, flashCount);
+            stop();
+            if (flashCount <= 0 || edges.isEmpty()) {
+                return;
+            }
+            // 在所有显示器上闪烁，显示器被移除后关闭多余的窗口
+            List<Rectangle2D> screens = ScreenGeometry.getAllBounds();
+            if (placedVersion != ScreenGeometry.getVersion()) {
+                discardStages(screens.size());
+                placedVersion = ScreenGeometry.getVersion();
+            }
+            for (int i = 0; i < screens.size(); i++) {
+                for (String edge : edges) {
+                    Stage stage = stageFor(i, edge);
+                    if (!activeStages.contains(stage)) {
+                        place(stage, screens.get(i), normalize(edge));
+                        stage.getScene().getRoot().setOpacity(0);
+                        stage.show();
+                        activeStages.add(stage);
+                    }
+                }
+            }
+            if (timeline == null) {
+                timeline = new Timeline(new KeyFrame(Duration.millis(FLASH_INTERVAL), event -> toggle()));
+                timeline.setOnFinished(event -> stop());
+            }
+            // 每次闪烁包含显示和隐藏两步，第一步立即显示
+            visible = false;
+            toggle();
+            timeline.setCycleCount(flashCount * 2 - 1);
+            timeline.playFromStart();
+        });
+    }
+
+    // 停止闪烁并隐藏所有窗口，窗口保留以便下次使用
+    private static void stop() {
+        if (timeline != null) {
+            timeline.stop();
+        }
+        for (Stage stage : activeStages) {
+            stage.hide();
+        }
+        activeStages.clear();
+        visible = false;
+    }
+
+    // 切换显示状态，只修改内容的不透明度，不重复显示和隐藏窗口
+    private static void toggle() {
+        visible = !visible;
+        for (Stage stage : activeStages) {
+            stage.getScene().getRoot().setOpacity(visible ? 1 : 0);
+        }
+    }
+
+    private static Stage stageFor(int screen, String edge) {
+        return STAGES.computeIfAbsent(screen + ":" + normalize(edge), key -> createStage());
+    }
+
+    // 关闭已经不存在的显示器上的窗口
+    private static void discardStages(int screenCount) {
+        STAGES.entrySet().removeIf(entry -> {
+            int screen = Integer.parseInt(entry.getKey().substring(0, entry.getKey().indexOf(':')));
+            if (screen < screenCount) {
+                return false;
             }
+            entry.getValue().close();
+            return true;
         });
     }
-    
-    // 闪烁单个边缘
-    private static void flashEdge(javafx.geometry.Rectangle2D screenBounds, String edge, int flashCount) {
-        // 创建一个无边框、无标题栏的窗口
+
+    // 未知的边缘按顶部处理
+    private static String normalize(String edge) {
+        String key = edge == null ? "" : edge.toLowerCase();
+        for (String known : EDGES) {
+            if (known.equals(key)) {
+                return known;
+            }
+        }
+        return "top";
+    }
+
+    // 创建一个无边框、无标题栏的置顶窗口
+    private static Stage createStage() {
         Stage flashStage = new Stage(StageStyle.TRANSPARENT);
-        
+
         // 创建内容面板
         StackPane root = new StackPane();
         root.setStyle("-fx-background-color: rgba(255, 255, 255, 0.8);");
-        
+
         // 创建场景
         Scene scene = new Scene(root);
         scene.setFill(Color.TRANSPARENT); // 场景透明
-        
+
         flashStage.setScene(scene);
         flashStage.setAlwaysOnTop(true); // 窗口置顶
-        
-        // 根据边缘类型设置窗口大小和位置
-        switch (edge.toLowerCase()) {
-            case "top":
-                flashStage.setX(0);
-                flashStage.setY(0);
-                flashStage.setWidth(screenBounds.getWidth());
-                flashStage.setHeight(FLASH_EDGE_WIDTH);
-                break;
+        return flashStage;
+    }
+
+    // 根据边缘类型设置窗口大小和位置
+    private static void place(Stage flashStage, Rectangle2D screenBounds, String edge) {
+        switch (edge) {
             case "bottom":
-                flashStage.setX(0);
-                flashStage.setY(screenBounds.getHeight() - FLASH_EDGE_WIDTH);
+                flashStage.setX(screenBounds.getMinX());
+                flashStage.setY(screenBounds.getMaxY() - FLASH_EDGE_WIDTH);
                 flashStage.setWidth(screenBounds.getWidth());
                 flashStage.setHeight(FLASH_EDGE_WIDTH);
                 break;
             case "left":
-                flashStage.setX(0);
-                flashStage.setY(0);
+                flashStage.setX(screenBounds.getMinX());
+                flashStage.setY(screenBounds.getMinY());
                 flashStage.setWidth(FLASH_EDGE_WIDTH);
                 flashStage.setHeight(screenBounds.getHeight());
                 break;
             case "right":
-                flashStage.setX(screenBounds.getWidth() - FLASH_EDGE_WIDTH);
-                flashStage.setY(0);
+                flashStage.setX(screenBounds.getMaxX() - FLASH_EDGE_WIDTH);
+                flashStage.setY(screenBounds.getMinY());
                 flashStage.setWidth(FLASH_EDGE_WIDTH);
                 flashStage.setHeight(screenBounds.getHeight());
                 break;
             default:
-                // 默认闪烁顶部边缘
-                flashStage.setX(0);
-                flashStage.setY(0);
+                flashStage.setX(screenBounds.getMinX());
+                flashStage.setY(screenBounds.getMinY());
                 flashStage.setWidth(screenBounds.getWidth());
                 flashStage.setHeight(FLASH_EDGE_WIDTH);
         }
-        
-        // 开始闪烁
-        new Thread(() -> {
-            try {
-                for (int i = 0; i < flashCount; i++) {
-                    // 显示窗口
-                    Platform.runLater(() -> flashStage.show());
-                    Thread.sleep(FLASH_INTERVAL);
-                    
-                    // 隐藏窗口
-                    Platform.runLater(() -> flashStage.hide());
-                    Thread.sleep(FLASH_INTERVAL);
-                }
-                
-                // 最后关闭窗口
-                Platform.runLater(() -> {
-                    if (flashStage.isShowing()) {
-                        flashStage.close();
-                    }
-                });
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
     }
-}
\ No newline at end of file
+}
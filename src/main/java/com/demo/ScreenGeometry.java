@@ -0,0 +1,89 @@
+package com.demo;
+
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.robot.Robot;
+import javafx.stage.Screen;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 所有显示器可用区域的缓存。
+ * 第一次使用时读取Screen.getScreens()，之后只在显示器列表变化（插拔、调整分辨率或排列）时重建，
+ * 闪烁和弹窗定位不再每次查询屏幕信息。只能在JavaFX应用线程中使用。
+ */
+public class ScreenGeometry {
+    private static List<Rectangle2D> bounds;  // 各显示器的可用区域，null表示需要重建
+    private static Rectangle2D primaryBounds;
+    private static int version;               // 每次重建加一，使用方据此判断布局是否需要更新
+    private static boolean listening;
+    private static Robot robot;
+
+    private ScreenGeometry() {
+    }
+
+    // 所有显示器的可用区域，第一个为主显示器
+    public static List<Rectangle2D> getAllBounds() {
+        ensureLoaded();
+        return bounds;
+    }
+
+    public static Rectangle2D getPrimaryBounds() {
+        ensureLoaded();
+        return primaryBounds;
+    }
+
+    // 缓存的版本号，显示器列表变化后增加
+    public static int getVersion() {
+        ensureLoaded();
+        return version;
+    }
+
+    // 包含指定坐标的显示器，坐标不在任何显示器上时返回主显示器
+    public static Rectangle2D boundsAt(double x, double y) {
+        for (Rectangle2D rectangle : getAllBounds()) {
+            if (rectangle.contains(x, y)) {
+                return rectangle;
+            }
+        }
+        return getPrimaryBounds();
+    }
+
+    // 鼠标所在的显示器，即用户正在看的屏幕
+    public static Rectangle2D getPointerBounds() {
+        try {
+            if (robot == null) {
+                robot = new Robot();
+            }
+            Point2D pointer = robot.getMousePosition();
+            return boundsAt(pointer.getX(), pointer.getY());
+        } catch (RuntimeException e) {
+            // 部分平台无法读取鼠标位置
+            return getPrimaryBounds();
+        }
+    }
+
+    private static void ensureLoaded() {
+        if (!listening) {
+            Screen.getScreens().addListener((ListChangeListener<Screen>) change -> bounds = null);
+            listening = true;
+        }
+        if (bounds != null) {
+            return;
+        }
+        Screen primary = Screen.getPrimary();
+        List<Rectangle2D> loaded = new ArrayList<>();
+        loaded.add(primary.getVisualBounds());
+        for (Screen screen : Screen.getScreens()) {
+            if (!screen.equals(primary)) {
+                loaded.add(screen.getVisualBounds());
+            }
+        }
+        primaryBounds = primary.getVisualBounds();
+        bounds = Collections.unmodifiableList(loaded);
+        version++;
+    }
+}
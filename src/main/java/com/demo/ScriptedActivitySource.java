@@ -0,0 +1,45 @@
+package com.demo;
+
+import java.util.Arrays;
+
+/**
+ * 按预先写好的输入时间返回空闲时长的数据源，用于在没有真实输入设备的环境中调试空闲检测。
+ * 输入时间是相对于创建时刻的毫秒数，也可以随时调用touch()模拟一次输入。
+ */
+public class ScriptedActivitySource implements ActivitySource {
+    private final long startNanos = System.nanoTime();
+    private long[] inputs; // 升序排列的输入时间（毫秒）
+
+    public ScriptedActivitySource(long... inputMillis) {
+        inputs = inputMillis.clone();
+        Arrays.sort(inputs);
+    }
+
+    // 模拟此刻发生一次输入
+    public synchronized void touch() {
+        inputs = Arrays.copyOf(inputs, inputs.length + 1);
+        inputs[inputs.length - 1] = elapsedMillis();
+        Arrays.sort(inputs);
+    }
+
+    @Override
+    public synchronized long getIdleMillis() {
+        long now = elapsedMillis();
+        // 最后一个不晚于当前时刻的输入，没有时从创建时刻算起
+        int index = Arrays.binarySearch(inputs, now);
+        if (index >= 0) {
+            return 0; // 此刻恰好有输入
+        }
+        int last = -index - 2;
+        return last >= 0 ? now - inputs[last] : now;
+    }
+
+    @Override
+    public String getName() {
+        return "scripted";
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
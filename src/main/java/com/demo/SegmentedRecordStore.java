@@ -0,0 +1,521 @@
+package com.demo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 按月分段保存的提醒记录库，历史记录不设上限。
+ * 每个月一个段文件（格式同ReminderRecordLog），只有当前月份的活动段常驻内存；
+ * 旧段在后台线程中整理（按开始时间排序、去重）并压缩为.gz，
+ * 超过保留期限的段会被删除。加载时间和堆占用与历史长度无关。
+ */
+public class SegmentedRecordStore implements Closeable {
+    public static final String DIRECTORY_NAME = "records";
+    private static final String SEGMENT_PREFIX = "records-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPRESSED_SUFFIX = ".log.gz";
+    private static final String IMPORT_SUFFIX = ".import"; // 导入旧版日志时各月的临时段
+    private static final String IMPORT_MARKER = "legacy-import.complete"; // 临时段已全部写好的标记
+    private static final int MAX_CACHED_MONTHS = 12; // 查询时缓存的已关闭月份数
+
+    private final Path directory;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // 后台整理压缩线程
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "record-compactor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private int retentionMonths; // 保留月数，0表示永久保留
+    private YearMonth activeMonth;
+    private ReminderRecordLog activeLog;
+    private final RecordColumns activeRecords = new RecordColumns();
+    // 已关闭月份按开始时间排序后的记录，按最近使用顺序淘汰
+    private final LinkedHashMap<YearMonth, RecordColumns> monthCache = new LinkedHashMap<YearMonth, RecordColumns>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, RecordColumns> eldest) {
+            return size() > MAX_CACHED_MONTHS;
+        }
+    };
+
+    private SegmentedRecordStore(Path directory, int retentionMonths) {
+        this.directory = directory;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * 打开记录库，只把当前月份的段读入内存
+     * @param directory 段文件所在目录
+     * @param retentionMonths 保留月数，0表示永久保留
+     * @param legacyLog 旧版单文件日志，存在时会被拆分导入到各月的段中
+     */
+    public static SegmentedRecordStore open(Path directory, int retentionMonths, Path legacyLog) throws IOException {
+        Files.createDirectories(directory);
+        SegmentedRecordStore store = new SegmentedRecordStore(directory, retentionMonths);
+        if (legacyLog != null && (Files.isRegularFile(legacyLog) || Files.exists(directory.resolve(IMPORT_MARKER)))) {
+            store.importLegacyLog(legacyLog);
+        }
+        store.activate(YearMonth.now(store.zone));
+        store.scheduleMaintenance();
+        return store;
+    }
+
+    // 追加一条记录，跨月时自动切换到新的段
+    public synchronized void append(ReminderRecord record) throws IOException {
+        YearMonth month = monthOf(record.getStartEpochSecond());
+        if (month.equals(activeMonth)) {
+            activeLog.append(record);
+            activeRecords.add(record);
+            return;
+        }
+        if (month.isAfter(activeMonth)) {
+            activate(month);
+            activeLog.append(record);
+            activeRecords.add(record);
+            scheduleMaintenance();
+            return;
+        }
+        // 属于更早月份的记录（例如系统时间被回拨），直接写入对应的段
+        appendToClosedSegment(month, record);
+    }
+
+    // 当前活动段中的记录
+    public synchronized RecordColumns getActiveRecords() {
+        return activeRecords.copy();
+    }
+
+    public synchronized YearMonth getActiveMonth() {
+        return activeMonth;
+    }
+
+    // 当前活动段所在月份的起始时间（秒）
+    public synchronized long getActiveMonthStartEpochSecond() {
+        return activeMonth.atDay(1).atStartOfDay(zone).toEpochSecond();
+    }
+
+    // 所有已有数据的月份，按时间升序
+    public synchronized List<YearMonth> listMonths() throws IOException {
+        TreeSet<YearMonth> months = new TreeSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : stream) {
+                YearMonth month = parseMonth(file.getFileName().toString());
+                if (month != null) {
+                    months.add(month);
+                }
+            }
+        }
+        months.add(activeMonth);
+        return new ArrayList<>(months);
+    }
+
+    /**
+     * 依次访问指定月份段中的记录，压缩段会先解压到内存
+     */
+    public void forEachInMonth(YearMonth month, ReminderRecordLog.RecordVisitor visitor) throws IOException {
+        Path plain;
+        Path compressed;
+        synchronized (this) {
+            if (month.equals(activeMonth)) {
+                activeLog.forEach(visitor);
+                return;
+            }
+            plain = segmentPath(month);
+            compressed = compressedPath(month);
+            if (Files.exists(plain)) {
+                ReminderRecordLog.read(plain, visitor);
+                return;
+            }
+        }
+        if (Files.exists(compressed)) {
+            ByteBuffer data = readCompressed(compressed);
+            while (data.remaining() >= ReminderRecordLog.RECORD_SIZE) {
+                long start = data.getLong();
+                long end = data.getLong();
+                int flags = data.getInt();
+                data.getInt();
+                visitor.visit(start, end, flags);
+            }
+        }
+    }
+
+    /**
+     * 按条件查询历史记录，返回逐月加载的游标；
+     * 每个月份内通过二分查找定位起点，翻页代价为O(log n + k)
+     */
+    public RecordCursor query(RecordQuery query) throws IOException {
+        List<YearMonth> months = new ArrayList<>();
+        YearMonth first = query.getFromEpochSecond() == Long.MIN_VALUE ? null : monthOf(query.getFromEpochSecond());
+        YearMonth last = query.getToEpochSecond() == Long.MAX_VALUE ? null : monthOf(query.getToEpochSecond() - 1);
+        for (YearMonth month : listMonths()) {
+            if ((first == null || !month.isBefore(first)) && (last == null || !month.isAfter(last))) {
+                months.add(month);
+            }
+        }
+        return new RecordCursor(this, query, months);
+    }
+
+    /**
+     * 取得一个月份按开始时间排序的全部记录，返回的集合不可修改
+     */
+    synchronized RecordColumns loadMonth(YearMonth month) throws IOException {
+        if (month.equals(activeMonth)) {
+            RecordColumns columns = activeRecords.copy();
+            columns.sortByStart();
+            return columns;
+        }
+        RecordColumns cached = monthCache.get(month);
+        if (cached != null) {
+            return cached;
+        }
+        RecordColumns columns = new RecordColumns();
+        forEachInMonth(month, columns::add);
+        columns.sortByStart();
+        monthCache.put(month, columns);
+        return columns;
+    }
+
+    private synchronized void invalidate(YearMonth month) {
+        monthCache.remove(month);
+    }
+
+    // 将活动段刷到磁盘
+    public synchronized void force() throws IOException {
+        activeLog.force();
+    }
+
+    // 删除所有段，清空全部记录
+    public synchronized void clear() throws IOException {
+        activeLog.clear();
+        activeRecords.clear();
+        monthCache.clear();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : stream) {
+                if (!file.equals(activeLog.getPath())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // 修改保留期限，立即在后台执行一次清理
+    public synchronized void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+        scheduleMaintenance();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // 等待后台整理结束时不能持有锁，整理任务本身需要加锁
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (activeLog != null) {
+                activeLog.close();
+            }
+        }
+    }
+
+    // 切换活动段，读入该月已有的记录
+    private void activate(YearMonth month) throws IOException {
+        if (activeLog != null) {
+            activeLog.close();
+        }
+        activeRecords.clear();
+        activeMonth = month;
+        Path compressed = compressedPath(month);
+        if (Files.exists(compressed)) {
+            decompress(month);
+        }
+        activeLog = ReminderRecordLog.open(segmentPath(month));
+        activeLog.forEach(activeRecords::add);
+    }
+
+    private void appendToClosedSegment(YearMonth month, ReminderRecord record) throws IOException {
+        if (Files.exists(compressedPath(month))) {
+            decompress(month);
+        }
+        try (ReminderRecordLog log = ReminderRecordLog.open(segmentPath(month))) {
+            log.append(record);
+            log.force();
+        }
+        invalidate(month);
+        scheduleMaintenance();
+    }
+
+    /**
+     * 把旧版单文件日志按月份拆分导入，完成后重命名旧文件。
+     * 每个月先写成包含该月已有记录和导入记录的临时段，全部写好并刷盘后才创建完成标记，
+     * 之后逐个替换正式段；中途退出时没有标记就丢弃临时段重新导入，有标记就继续替换，不会重复导入。
+     */
+    private void importLegacyLog(Path legacyLog) throws IOException {
+        Path marker = directory.resolve(IMPORT_MARKER);
+        if (!Files.exists(marker)) {
+            deleteImportFiles();
+            Map<YearMonth, ReminderRecordLog> logs = new LinkedHashMap<>();
+            try {
+                ReminderRecordLog.read(legacyLog, (start, end, flags) -> {
+                    try {
+                        importLogFor(monthOf(start), logs).append(start, end, flags);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                for (ReminderRecordLog log : logs.values()) {
+                    log.force();
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                for (ReminderRecordLog log : logs.values()) {
+                    log.close();
+                }
+            }
+            Files.createFile(marker);
+        }
+
+        int months = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + IMPORT_SUFFIX)) {
+            for (Path imported : stream) {
+                YearMonth month = parseMonth(imported.getFileName().toString().replace(IMPORT_SUFFIX, ""));
+                if (month == null) {
+                    continue;
+                }
+                // 临时段已包含压缩段中的记录，先删压缩段再替换，重复执行也不会丢失或重复
+                Files.deleteIfExists(compressedPath(month));
+                Files.move(imported, segmentPath(month), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                months++;
+            }
+        }
+        if (Files.exists(legacyLog)) {
+            Files.move(legacyLog, legacyLog.resolveSibling(legacyLog.getFileName() + ReminderRecordMigrator.MIGRATED_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.delete(marker);
+        System.out.println("已将旧版提醒记录日志拆分为" + months + "个月度段");
+    }
+
+    // 导入时某个月份的临时段，第一次用到时先复制该月已有的记录
+    private ReminderRecordLog importLogFor(YearMonth month, Map<YearMonth, ReminderRecordLog> logs) throws IOException {
+        ReminderRecordLog log = logs.get(month);
+        if (log != null) {
+            return log;
+        }
+        Path imported = directory.resolve(segmentPath(month).getFileName() + IMPORT_SUFFIX);
+        log = ReminderRecordLog.open(imported);
+        logs.put(month, log);
+        Path compressed = compressedPath(month);
+        if (Files.exists(compressed)) {
+            ByteBuffer data = readCompressed(compressed);
+            while (data.remaining() >= ReminderRecordLog.RECORD_SIZE) {
+                long start = data.getLong();
+                long end = data.getLong();
+                int flags = data.getInt();
+                data.getInt();
+                log.append(start, end, flags);
+            }
+        }
+        Path plain = segmentPath(month);
+        if (Files.exists(plain)) {
+            ReminderRecordLog target = log;
+            try {
+                ReminderRecordLog.read(plain, (start, end, flags) -> {
+                    try {
+                        target.append(start, end, flags);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        return log;
+    }
+
+    // 删除上次中断的导入留下的临时段
+    private void deleteImportFiles() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + IMPORT_SUFFIX)) {
+            for (Path file : stream) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // 在后台整理压缩旧段，并删除超过保留期限的段
+    private void scheduleMaintenance() {
+        YearMonth active = activeMonth;
+        int retention = retentionMonths;
+        compactor.submit(() -> {
+            try {
+                runMaintenance(active, retention);
+            } catch (Exception e) {
+                System.err.println("整理提醒记录段失败：" + e.getMessage());
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private void runMaintenance(YearMonth active, int retention) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+        YearMonth cutoff = retention > 0 ? active.minusMonths(retention - 1L) : null;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            YearMonth month = parseMonth(name);
+            if (month == null || month.equals(active)) {
+                continue;
+            }
+            if (cutoff != null && month.isBefore(cutoff)) {
+                Files.deleteIfExists(file);
+                invalidate(month);
+                System.out.println("已删除超过保留期限的提醒记录段：" + name);
+            } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                compact(month);
+            }
+        }
+    }
+
+    /**
+     * 整理一个已关闭的段：按开始时间排序、去掉重复记录，
+     * 与已有的压缩段合并后写成.gz，再原子替换
+     */
+    private void compact(YearMonth month) throws IOException {
+        Path plain = segmentPath(month);
+        Path compressed = compressedPath(month);
+        long[][] rows;
+        long plainSize;
+        synchronized (this) {
+            if (month.equals(activeMonth) || !Files.exists(plain)) {
+                return;
+            }
+            plainSize = Files.size(plain);
+            List<long[]> collected = new ArrayList<>();
+            if (Files.exists(compressed)) {
+                ByteBuffer data = readCompressed(compressed);
+                while (data.remaining() >= ReminderRecordLog.RECORD_SIZE) {
+                    collected.add(new long[]{data.getLong(), data.getLong(), data.getInt()});
+                    data.getInt();
+                }
+            }
+            ReminderRecordLog.read(plain, (start, end, flags) -> collected.add(new long[]{start, end, flags}));
+            rows = collected.toArray(new long[0][]);
+        }
+
+        Arrays.sort(rows, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        ByteBuffer body = ByteBuffer.allocate(rows.length * ReminderRecordLog.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long[] previous = null;
+        for (long[] row : rows) {
+            if (previous != null && previous[0] == row[0] && previous[1] == row[1]) {
+                continue; // 重复记录
+            }
+            body.putLong(row[0]).putLong(row[1]).putInt((int) row[2]).putInt(0);
+            previous = row;
+        }
+        body.flip();
+
+        Path temp = compressed.resolveSibling(compressed.getFileName() + ".tmp");
+        try (OutputStream output = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.write(body.array(), 0, body.limit());
+        }
+        synchronized (this) {
+            if (!Files.exists(plain) || Files.size(plain) != plainSize) {
+                // 整理期间又有记录写入该段，放弃本次结果，下次维护时重新整理
+                Files.deleteIfExists(temp);
+                return;
+            }
+            Files.move(temp, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(plain);
+            monthCache.remove(month);
+        }
+    }
+
+    // 把压缩段还原为普通段，以便继续追加
+    private void decompress(YearMonth month) throws IOException {
+        Path compressed = compressedPath(month);
+        ByteBuffer data = readCompressed(compressed);
+        try (ReminderRecordLog log = ReminderRecordLog.open(segmentPath(month))) {
+            while (data.remaining() >= ReminderRecordLog.RECORD_SIZE) {
+                long start = data.getLong();
+                long end = data.getLong();
+                int flags = data.getInt();
+                data.getInt();
+                log.append(start, end, flags);
+            }
+            log.force();
+        }
+        Files.delete(compressed);
+    }
+
+    // 读取压缩段中的全部记录数据（不含文件头）
+    private static ByteBuffer readCompressed(Path compressed) throws IOException {
+        try (InputStream input = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(compressed)))) {
+            return ByteBuffer.wrap(input.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private YearMonth monthOf(long epochSecond) {
+        return YearMonth.from(Instant.ofEpochSecond(epochSecond).atZone(zone));
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return directory.resolve(SEGMENT_PREFIX + month + SEGMENT_SUFFIX);
+    }
+
+    private Path compressedPath(YearMonth month) {
+        return directory.resolve(SEGMENT_PREFIX + month + COMPRESSED_SUFFIX);
+    }
+
+    // 从段文件名中解析月份，无法识别时返回null
+    private static YearMonth parseMonth(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX)) {
+            return null;
+        }
+        String rest = fileName.substring(SEGMENT_PREFIX.length());
+        int dot = rest.indexOf('.');
+        if (dot < 0 || (!rest.endsWith(SEGMENT_SUFFIX) && !rest.endsWith(COMPRESSED_SUFFIX))) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(rest.substring(0, dot));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
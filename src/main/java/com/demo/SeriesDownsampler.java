@@ -0,0 +1,81 @@
+package com.demo;
+
+/**
+ * 时间序列降采样。
+ * 使用Largest-Triangle-Three-Buckets算法：首尾两点保留，其余数据均分为若干桶，
+ * 每个桶选出与上一个选中点、下一个桶平均点构成三角形面积最大的点，
+ * 在保留峰谷形状的前提下把点数降到与绘制宽度相当。
+ */
+public class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    /**
+     * 对x[from, to)范围内的点降采样
+     * @param x 按升序排列的横坐标
+     * @param y 纵坐标
+     * @param threshold 最多保留的点数，小于3时不降采样
+     * @return 选中点的下标，按升序排列
+     */
+    public static int[] largestTriangleThreeBuckets(long[] x, double[] y, int from, int to, int threshold) {
+        int count = to - from;
+        if (count <= 0) {
+            return new int[0];
+        }
+        if (threshold < 3 || threshold >= count) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        double every = (double) (count - 2) / (threshold - 2); // 每个桶的点数
+        int a = from; // 上一个选中的点
+        sampled[sampledCount++] = a;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // 下一个桶的平均点
+            int averageStart = from + (int) Math.floor((bucket + 1) * every) + 1;
+            int averageEnd = Math.min(from + (int) Math.floor((bucket + 2) * every) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = averageStart; i < averageEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int averageLength = averageEnd - averageStart;
+            if (averageLength > 0) {
+                averageX /= averageLength;
+                averageY /= averageLength;
+            } else {
+                averageX = x[to - 1];
+                averageY = y[to - 1];
+            }
+
+            // 当前桶中与a和平均点构成最大三角形的点
+            int rangeStart = from + (int) Math.floor(bucket * every) + 1;
+            int rangeEnd = from + (int) Math.floor((bucket + 1) * every) + 1;
+            double pointAX = x[a];
+            double pointAY = y[a];
+            double maxArea = -1;
+            int maxIndex = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double area = Math.abs((pointAX - averageX) * (y[i] - pointAY)
+                        - (pointAX - x[i]) * (averageY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            sampled[sampledCount++] = maxIndex;
+            a = maxIndex;
+        }
+
+        sampled[sampledCount++] = to - 1;
+        return sampled;
+    }
+}
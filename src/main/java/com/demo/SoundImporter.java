@@ -0,0 +1,286 @@
+package com.demo;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * 用户提示音导入。
+ * 在后台线程中把用户选择的WAV/MP3解码一次，按简化的EBU R128方法测量综合响度并归一化，
+ * 写成带文件头的16位PCM文件保存在配置目录的sounds子目录下。
+ * 之后播放时直接内存映射该文件，不再解码，各个提示音的音量也保持一致。
+ *
+ * 文件格式：magic(4) version(2) channels(2) sampleRate(4) frames(8) loudness*100(4) reserved(8) + PCM数据
+ */
+public class SoundImporter {
+    public static final String DIRECTORY_NAME = "sounds";
+    public static final String IMPORTED_EXTENSION = "pcm";
+    private static final int MAGIC = 0x53525043; // "SRPC"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final double TARGET_LOUDNESS = -16.0; // 归一化目标响度（LUFS）
+    private static final double MAX_PEAK = Math.pow(10, -1.0 / 20); // 峰值上限-1dBFS
+    private static final double ABSOLUTE_GATE = -70.0;  // 绝对门限（LUFS）
+    private static final double RELATIVE_GATE = -10.0;  // 相对门限（LU）
+
+    /**
+     * 导入结果回调，在导入线程中调用
+     */
+    public interface ImportListener {
+        void onImported(Path importedFile, double measuredLoudness, double appliedGainDb);
+
+        void onFailed(Exception error);
+    }
+
+    private static SoundImporter instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sound-importer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SoundImporter() {
+    }
+
+    public static synchronized SoundImporter getInstance() {
+        if (instance == null) {
+            instance = new SoundImporter();
+        }
+        return instance;
+    }
+
+    // 在后台导入声音文件，同一文件（路径、大小和修改时间都相同）只导入一次
+    public void importSound(File source, String configDirectory, ImportListener listener) {
+        executor.submit(() -> {
+            try {
+                Path target = targetPath(source, Paths.get(configDirectory, DIRECTORY_NAME));
+                if (Files.isRegularFile(target)) {
+                    listener.onImported(target, readLoudness(target), 0);
+                    return;
+                }
+                AudioCache.DecodedSound decoded;
+                try (InputStream input = new BufferedInputStream(Files.newInputStream(source.toPath()))) {
+                    decoded = AudioCache.decode(input, AudioCache.getFileExtension(source.getName()));
+                }
+                short[] samples = toSamples(decoded.getData());
+                AudioFormat format = decoded.getFormat();
+                double loudness = measureLoudness(samples, format.getChannels(), format.getSampleRate());
+                double gainDb = normalizationGainDb(samples, loudness);
+                applyGain(samples, gainDb);
+                write(target, samples, format, loudness);
+                System.out.println(String.format("已导入提示音%s：响度%.1f LUFS，增益%.1f dB",
+                        source.getName(), loudness, gainDb));
+                listener.onImported(target, loudness, gainDb);
+            } catch (Exception e) {
+                System.err.println("导入提示音失败：" + e.getMessage());
+                listener.onFailed(e);
+            }
+        });
+    }
+
+    // 以内存映射方式打开导入后的声音文件
+    public static AudioCache.DecodedSound map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, file);
+            int channels = header.getShort(6);
+            int sampleRate = header.getInt(8);
+            long frames = header.getLong(12);
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, frames * channels * 2);
+            return new AudioCache.DecodedSound(new AudioFormat(sampleRate, 16, channels, true, false), data);
+        }
+    }
+
+    private static double readLoudness(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel, file).getInt(20) / 100.0;
+        }
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC || header.getShort(4) != VERSION) {
+            throw new IOException("不是有效的导入提示音文件：" + file);
+        }
+        return header;
+    }
+
+    // 写入临时文件后原子替换，避免留下不完整的文件
+    private static void write(Path target, short[] samples, AudioFormat format, double loudness) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) format.getChannels());
+        buffer.putInt((int) format.getSampleRate());
+        buffer.putLong(samples.length / format.getChannels());
+        buffer.putInt((int) Math.round(loudness * 100));
+        buffer.position(HEADER_SIZE);
+        for (short sample : samples) {
+            buffer.putShort(sample);
+        }
+        PersistenceService.writeAtomically(target, buffer.array(), true);
+    }
+
+    // 目标文件名：原文件名加上路径、大小和修改时间的校验值
+    private static Path targetPath(File source, Path directory) {
+        CRC32 crc = new CRC32();
+        crc.update((source.getAbsolutePath() + "|" + source.length() + "|" + source.lastModified()).getBytes());
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        String base = (dot > 0 ? name.substring(0, dot) : name).replaceAll("[^\\p{L}\\p{N}_-]", "_");
+        return directory.resolve(base + "-" + Long.toHexString(crc.getValue()) + "." + IMPORTED_EXTENSION);
+    }
+
+    private static short[] toSamples(ByteBuffer data) {
+        ByteBuffer little = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        short[] samples = new short[little.remaining() / 2];
+        little.asShortBuffer().get(samples);
+        return samples;
+    }
+
+    /**
+     * 按EBU R128的方法测量综合响度：K加权滤波，400ms分块（75%重叠），
+     * 先用-70LUFS绝对门限，再用低于平均值10LU的相对门限筛选分块。
+     * 这里只处理单声道和立体声，各声道权重均为1。
+     */
+    static double measureLoudness(short[] samples, int channels, float sampleRate) {
+        int frames = samples.length / channels;
+        double[] weighted = new double[frames]; // 每帧各声道K加权后的平方和
+        for (int c = 0; c < channels; c++) {
+            Biquad shelf = Biquad.highShelf(sampleRate);
+            Biquad highPass = Biquad.highPass(sampleRate);
+            for (int i = 0; i < frames; i++) {
+                double x = samples[i * channels + c] / 32768.0;
+                double y = highPass.process(shelf.process(x));
+                weighted[i] += y * y;
+            }
+        }
+
+        int blockFrames = Math.max(1, Math.round(sampleRate * 0.4f));
+        int stepFrames = Math.max(1, blockFrames / 4);
+        List<Double> blockPowers = new ArrayList<>();
+        if (frames <= blockFrames) {
+            blockPowers.add(meanPower(weighted, 0, frames));
+        } else {
+            for (int start = 0; start + blockFrames <= frames; start += stepFrames) {
+                blockPowers.add(meanPower(weighted, start, blockFrames));
+            }
+        }
+
+        double absoluteSum = 0;
+        int absoluteCount = 0;
+        for (double power : blockPowers) {
+            if (toLoudness(power) > ABSOLUTE_GATE) {
+                absoluteSum += power;
+                absoluteCount++;
+            }
+        }
+        if (absoluteCount == 0) {
+            return Double.NEGATIVE_INFINITY; // 静音
+        }
+        double relativeGate = toLoudness(absoluteSum / absoluteCount) + RELATIVE_GATE;
+        double gatedSum = 0;
+        int gatedCount = 0;
+        for (double power : blockPowers) {
+            double loudness = toLoudness(power);
+            if (loudness > ABSOLUTE_GATE && loudness > relativeGate) {
+                gatedSum += power;
+                gatedCount++;
+            }
+        }
+        return toLoudness(gatedSum / gatedCount);
+    }
+
+    // 达到目标响度所需的增益，同时保证峰值不超过-1dBFS
+    private static double normalizationGainDb(short[] samples, double loudness) {
+        if (Double.isInfinite(loudness)) {
+            return 0;
+        }
+        int peak = 1;
+        for (short sample : samples) {
+            peak = Math.max(peak, Math.abs((int) sample));
+        }
+        double maxGainDb = 20 * Math.log10(MAX_PEAK * 32767 / peak);
+        return Math.min(TARGET_LOUDNESS - loudness, maxGainDb);
+    }
+
+    private static void applyGain(short[] samples, double gainDb) {
+        double gain = Math.pow(10, gainDb / 20);
+        for (int i = 0; i < samples.length; i++) {
+            long value = Math.round(samples[i] * gain);
+            samples[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+        }
+    }
+
+    private static double meanPower(double[] weighted, int start, int length) {
+        double sum = 0;
+        for (int i = start; i < start + length; i++) {
+            sum += weighted[i];
+        }
+        return sum / length;
+    }
+
+    private static double toLoudness(double power) {
+        return -0.691 + 10 * Math.log10(power);
+    }
+
+    /**
+     * K加权滤波使用的二阶节，系数按ITU-R BS.1770换算到任意采样率
+     */
+    private static final class Biquad {
+        private final double b0, b1, b2, a1, a2;
+        private double z1, z2;
+
+        private Biquad(double b0, double b1, double b2, double a1, double a2) {
+            this.b0 = b0;
+            this.b1 = b1;
+            this.b2 = b2;
+            this.a1 = a1;
+            this.a2 = a2;
+        }
+
+        // 第一级：模拟头部声学效应的高架滤波
+        static Biquad highShelf(double sampleRate) {
+            double f0 = 1681.974450955533;
+            double gain = 3.999843853973347;
+            double q = 0.7071752369554196;
+            double k = Math.tan(Math.PI * f0 / sampleRate);
+            double vh = Math.pow(10.0, gain / 20.0);
+            double vb = Math.pow(vh, 0.4996667741545416);
+            double a0 = 1.0 + k / q + k * k;
+            return new Biquad((vh + vb * k / q + k * k) / a0, 2.0 * (k * k - vh) / a0, (vh - vb * k / q + k * k) / a0,
+                    2.0 * (k * k - 1.0) / a0, (1.0 - k / q + k * k) / a0);
+        }
+
+        // 第二级：RLB加权高通滤波
+        static Biquad highPass(double sampleRate) {
+            double f0 = 38.13547087602444;
+            double q = 0.5003270373238773;
+            double k = Math.tan(Math.PI * f0 / sampleRate);
+            double a0 = 1.0 + k / q + k * k;
+            return new Biquad(1.0, -2.0, 1.0, 2.0 * (k * k - 1.0) / a0, (1.0 - k / q + k * k) / a0);
+        }
+
+        double process(double x) {
+            double y = b0 * x + z1;
+            z1 = b1 * x - a1 * y + z2;
+            z2 = b2 * x - a2 * y;
+            return y;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.demo;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 运行时的提示音合成器。
+ * 使用预先计算的波表和简单的包络（起音+指数衰减+收尾）把音符序列直接合成为PCM，
+ * 边播放边生成，不读写文件，每种提示音只占几十字节的音符描述。
+ * 在声音文件设置中使用"tone:名称"即可选用，例如"tone:chime"。
+ */
+public class ToneSynthesizer {
+    public static final String PREFIX = "tone:";
+    public static final String DEFAULT_TONE = "chime";
+    private static final float SAMPLE_RATE = 44100f;
+    // 与音频引擎预先打开的线路格式相同，播放时无需重新打开线路
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+    // 音符结束前线性收尾到0的时长，指数衰减在结束时还没有降到0，直接截断会产生咔嗒声
+    private static final int RELEASE_MILLIS = 15;
+
+    // 纯正弦波表和带泛音的钟声波表，所有音色共享
+    private static final float[] SINE = buildTable(new float[]{1f});
+    private static final float[] BELL = buildTable(new float[]{1f, 0f, 0.45f, 0f, 0.25f, 0f, 0.12f});
+
+    /**
+     * 一个音符：从startMillis开始，持续durationMillis
+     */
+    private static final class Note {
+        final float[] table;
+        final long phaseStep;   // 16.16定点的波表步长
+        final int startFrame;
+        final int endFrame;
+        final int attackFrames;
+        final int releaseFrame;  // 开始收尾的帧
+        final int releaseFrames;
+        final float decayPerFrame; // 每帧的衰减系数
+        final float amplitude;
+
+        Note(float[] table, double frequency, int startMillis, int durationMillis, int attackMillis,
+             float decayMillis, float amplitude) {
+            this.table = table;
+            this.phaseStep = (long) (frequency * TABLE_SIZE / SAMPLE_RATE * 65536);
+            this.startFrame = millisToFrames(startMillis);
+            this.endFrame = startFrame + millisToFrames(durationMillis);
+            this.attackFrames = Math.max(1, millisToFrames(attackMillis));
+            this.releaseFrames = Math.max(1, Math.min(millisToFrames(RELEASE_MILLIS), endFrame - startFrame - attackFrames));
+            this.releaseFrame = endFrame - releaseFrames;
+            this.decayPerFrame = (float) Math.exp(-1.0 / (decayMillis * SAMPLE_RATE / 1000));
+            this.amplitude = amplitude;
+        }
+    }
+
+    private static final Map<String, Note[]> TONES = new LinkedHashMap<>();
+
+    static {
+        // 两声下行的门铃
+        TONES.put("chime", new Note[]{
+                new Note(BELL, 880.0, 0, 900, 5, 300, 0.45f),
+                new Note(BELL, 659.3, 250, 1200, 5, 400, 0.45f)});
+        // 逐级上升的三个音，适合提醒起身
+        TONES.put("rising", new Note[]{
+                new Note(SINE, 523.3, 0, 300, 10, 200, 0.4f),
+                new Note(SINE, 659.3, 180, 300, 10, 200, 0.4f),
+                new Note(SINE, 784.0, 360, 600, 10, 300, 0.4f)});
+        // 短促的双响，适合喝水等轻量提醒
+        TONES.put("double", new Note[]{
+                new Note(SINE, 1046.5, 0, 150, 3, 60, 0.35f),
+                new Note(SINE, 1046.5, 200, 150, 3, 60, 0.35f)});
+        // 柔和的单音
+        TONES.put("soft", new Note[]{
+                new Note(SINE, 587.3, 0, 1200, 80, 500, 0.3f)});
+        // 重复三次的和弦，用于需要引起注意的提醒
+        TONES.put("urgent", new Note[]{
+                new Note(BELL, 987.8, 0, 250, 3, 120, 0.3f),
+                new Note(BELL, 1318.5, 0, 250, 3, 120, 0.25f),
+                new Note(BELL, 987.8, 350, 250, 3, 120, 0.3f),
+                new Note(BELL, 1318.5, 350, 250, 3, 120, 0.25f),
+                new Note(BELL, 987.8, 700, 500, 3, 250, 0.3f),
+                new Note(BELL, 1318.5, 700, 500, 3, 250, 0.25f)});
+    }
+
+    private ToneSynthesizer() {
+    }
+
+    // 声音设置是否指向合成音色
+    public static boolean isTone(String soundFilePath) {
+        return soundFilePath != null && soundFilePath.startsWith(PREFIX);
+    }
+
+    // 所有可用的音色名称
+    public static Set<String> getToneNames() {
+        return Collections.unmodifiableSet(TONES.keySet());
+    }
+
+    /**
+     * 创建合成音色的数据源，名称未知时使用默认音色
+     * @param soundFilePath "tone:名称"或直接的音色名称
+     */
+    public static PcmSource newSource(String soundFilePath) {
+        String name = isTone(soundFilePath) ? soundFilePath.substring(PREFIX.length()) : soundFilePath;
+        Note[] notes = TONES.get(name);
+        if (notes == null) {
+            notes = TONES.get(DEFAULT_TONE);
+        }
+        return new ToneSource(notes);
+    }
+
+    /**
+     * 边读取边合成的数据源，每个数据源只保存各音符的相位和包络状态
+     */
+    private static final class ToneSource implements PcmSource {
+        private final Note[] notes;
+        private final long[] phases;
+        private final float[] envelopes;
+        private final int totalFrames;
+        private int frame;
+
+        ToneSource(Note[] notes) {
+            this.notes = notes;
+            this.phases = new long[notes.length];
+            this.envelopes = new float[notes.length];
+            Arrays.fill(envelopes, 1f);
+            int end = 0;
+            for (Note note : notes) {
+                end = Math.max(end, note.endFrame);
+            }
+            this.totalFrames = end;
+        }
+
+        @Override
+        public AudioFormat getFormat() {
+            return FORMAT;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (frame >= totalFrames) {
+                return -1;
+            }
+            int frames = Math.min(length / 4, totalFrames - frame);
+            for (int i = 0; i < frames; i++, frame++) {
+                float sample = 0f;
+                for (int n = 0; n < notes.length; n++) {
+                    Note note = notes[n];
+                    if (frame < note.startFrame || frame >= note.endFrame) {
+                        continue;
+                    }
+                    int elapsed = frame - note.startFrame;
+                    float level;
+                    if (elapsed < note.attackFrames) {
+                        level = (float) elapsed / note.attackFrames;
+                    } else {
+                        envelopes[n] *= note.decayPerFrame;
+                        level = envelopes[n];
+                    }
+                    if (frame >= note.releaseFrame) {
+                        level *= (float) (note.endFrame - frame) / note.releaseFrames;
+                    }
+                    sample += note.table[(int) (phases[n] >>> 16) & TABLE_MASK] * level * note.amplitude;
+                    phases[n] += note.phaseStep;
+                }
+                int value = (int) (sample * Short.MAX_VALUE);
+                if (value > Short.MAX_VALUE) {
+                    value = Short.MAX_VALUE;
+                } else if (value < Short.MIN_VALUE) {
+                    value = Short.MIN_VALUE;
+                }
+                // 左右声道相同
+                int index = offset + i * 4;
+                buffer[index] = (byte) value;
+                buffer[index + 1] = (byte) (value >> 8);
+                buffer[index + 2] = (byte) value;
+                buffer[index + 3] = (byte) (value >> 8);
+            }
+            return frames * 4;
+        }
+    }
+
+    // 按各次谐波的幅度生成一个周期的波表，并归一化到[-1, 1]
+    private static float[] buildTable(float[] harmonics) {
+        float[] table = new float[TABLE_SIZE];
+        float peak = 0f;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            double angle = 2 * Math.PI * i / TABLE_SIZE;
+            float value = 0f;
+            for (int h = 0; h < harmonics.length; h++) {
+                value += harmonics[h] * Math.sin(angle * (h + 1));
+            }
+            table[i] = value;
+            peak = Math.max(peak, Math.abs(value));
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table[i] /= peak;
+        }
+        return table;
+    }
+
+    private static int millisToFrames(int millis) {
+        return (int) (SAMPLE_RATE * millis / 1000);
+    }
+}
@@ -0,0 +1,49 @@
+package com.demo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 守护进程模式下单个用户的状态：独立的配置、提醒记录和已注册的提醒计划。
+ * 除只读的标识信息外，访问前需持有ReminderDaemon为该用户分配的分段锁。
+ */
+public class UserSession {
+    private final String userId;
+    private final Configuration configuration;
+    // 已在共享引擎中注册的计划名称（带用户前缀）
+    private final List<String> scheduleNames = new ArrayList<>();
+    // 当前这段久坐开始的时间
+    private LocalDateTime sittingSince;
+
+    UserSession(String userId, Configuration configuration) {
+        this.userId = userId;
+        this.configuration = configuration;
+        this.sittingSince = LocalDateTime.now();
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Configuration getConfiguration() {
+        return configuration;
+    }
+
+    List<String> getScheduleNames() {
+        return scheduleNames;
+    }
+
+    public List<String> getRegisteredSchedules() {
+        return Collections.unmodifiableList(scheduleNames);
+    }
+
+    LocalDateTime getSittingSince() {
+        return sittingSince;
+    }
+
+    void setSittingSince(LocalDateTime sittingSince) {
+        this.sittingSince = sittingSince;
+    }
+}
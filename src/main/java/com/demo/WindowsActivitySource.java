@@ -0,0 +1,28 @@
+package com.demo;
+
+import com.sun.jna.platform.win32.Kernel32;
+import com.sun.jna.platform.win32.User32;
+import com.sun.jna.platform.win32.WinUser;
+
+/**
+ * Windows下通过GetLastInputInfo读取最近一次输入的时间，
+ * 由系统维护，读取一次只是一次本地调用，不需要挂钩子或轮询输入设备
+ */
+public class WindowsActivitySource implements ActivitySource {
+    private final WinUser.LASTINPUTINFO info = new WinUser.LASTINPUTINFO(); // 每次读取复用
+
+    @Override
+    public synchronized long getIdleMillis() {
+        info.cbSize = info.size();
+        if (!User32.INSTANCE.GetLastInputInfo(info)) {
+            return -1;
+        }
+        // 两个值都是开机以来的32位毫秒数，约49.7天回绕一次，按无符号差值计算
+        return (Kernel32.INSTANCE.GetTickCount() - info.dwTime) & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public String getName() {
+        return "GetLastInputInfo";
+    }
+}
@@ -0,0 +1,95 @@
+package com.demo;
+
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Structure;
+import com.sun.jna.platform.unix.X11;
+
+/**
+ * Linux图形会话下通过X11屏幕保护扩展（libXss）读取空闲时间，
+ * 与桌面环境判断锁屏、熄屏使用的是同一个数据
+ */
+public class X11ActivitySource implements ActivitySource {
+    private final Xss xss;
+    private final X11.Display display;
+    private final X11.Window root;
+    private final XScreenSaverInfo info = new XScreenSaverInfo(); // 每次查询复用
+    private boolean closed;
+
+    private X11ActivitySource(Xss xss, X11.Display display) {
+        this.xss = xss;
+        this.display = display;
+        this.root = X11.INSTANCE.XDefaultRootWindow(display);
+    }
+
+    /**
+     * 连接当前的X显示
+     * @return 数据源，没有图形会话或缺少libXss时返回null
+     */
+    public static X11ActivitySource open() {
+        if (System.getenv("DISPLAY") == null) {
+            return null;
+        }
+        Xss xss;
+        try {
+            xss = Native.load("Xss", Xss.class);
+        } catch (UnsatisfiedLinkError e) {
+            System.out.println("未找到libXss，不使用X11空闲检测");
+            return null;
+        }
+        X11.Display display;
+        try {
+            // 首次访问X11.INSTANCE时才加载libX11，缺少时抛出的Error不能漏到调用方
+            display = X11.INSTANCE.XOpenDisplay(null);
+        } catch (UnsatisfiedLinkError | ExceptionInInitializerError | NoClassDefFoundError e) {
+            System.out.println("无法加载libX11，不使用X11空闲检测：" + e);
+            return null;
+        }
+        if (display == null) {
+            return null;
+        }
+        X11ActivitySource source = new X11ActivitySource(xss, display);
+        if (source.getIdleMillis() < 0) {
+            source.close();
+            return null;
+        }
+        return source;
+    }
+
+    @Override
+    public synchronized long getIdleMillis() {
+        if (closed || xss.XScreenSaverQueryInfo(display, root, info) == 0) {
+            return -1;
+        }
+        return info.idle.longValue();
+    }
+
+    @Override
+    public String getName() {
+        return "XScreenSaver";
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            X11.INSTANCE.XCloseDisplay(display);
+        }
+    }
+
+    // libXss中用到的函数
+    public interface Xss extends Library {
+        int XScreenSaverQueryInfo(X11.Display display, X11.Drawable drawable, XScreenSaverInfo info);
+    }
+
+    @Structure.FieldOrder({"window", "state", "kind", "tilOrSince", "idle", "eventMask"})
+    public static class XScreenSaverInfo extends Structure {
+        public NativeLong window;
+        public int state;
+        public int kind;
+        public NativeLong tilOrSince;
+        public NativeLong idle; // 空闲时长（毫秒）
+        public NativeLong eventMask;
+    }
+}
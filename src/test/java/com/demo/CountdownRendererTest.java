@@ -0,0 +1,108 @@
+package com.demo;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountdownRendererTest {
+    private static final int ITERATIONS = 1_000_000;
+
+    @Test
+    void rendersMinutesAndSeconds() {
+        CountdownRenderer renderer = new CountdownRenderer();
+        assertTrue(renderer.update(61_999));
+        assertEquals("距离下次提醒还有：1分1秒", renderer.getText());
+        assertTrue(renderer.update(-5));
+        assertEquals("距离下次提醒还有：0分0秒", renderer.getText());
+    }
+
+    @Test
+    void coarseModeRoundsMinutesUp() {
+        CountdownRenderer renderer = new CountdownRenderer();
+        renderer.setCoarse(true);
+        assertTrue(renderer.update(30_000));
+        assertEquals("距离下次提醒还有：1分钟", renderer.getText());
+        assertFalse(renderer.update(1));
+        assertTrue(renderer.update(60_001));
+        assertEquals("距离下次提醒还有：2分钟", renderer.getText());
+        assertEquals(60_000, renderer.getTickMillis());
+    }
+
+    @Test
+    void unchangedValueKeepsText() {
+        CountdownRenderer renderer = new CountdownRenderer();
+        renderer.update(5_000);
+        String text = renderer.getText();
+        assertFalse(renderer.update(5_999));
+        assertSame(text, renderer.getText());
+        renderer.reset();
+        assertTrue(renderer.update(5_999));
+    }
+
+    // 显示的数值不变时（例如窗口恢复可见时额外刷新一次），update()不分配任何对象
+    @Test
+    void unchangedValueDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CountdownRenderer renderer = new CountdownRenderer();
+        renderer.update(5_000);
+        // 预热，让update()先被编译
+        runUnchanged(renderer);
+
+        long baseline = measure(threads, null);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runUnchanged(renderer);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before - baseline;
+        assertEquals(0, allocated, "update() allocated " + allocated + " bytes");
+    }
+
+    // 实际的逐秒刷新每次数值都会变化，此时只分配交给Label的那一个String，不再有格式化和装箱的开销
+    @Test
+    void changingValueAllocatesOnlyTheText() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CountdownRenderer renderer = new CountdownRenderer();
+        runChanging(renderer);
+
+        long baseline = measure(threads, null);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        runChanging(renderer);
+        long perUpdate = (threads.getCurrentThreadAllocatedBytes() - before - baseline) / ITERATIONS;
+        // 生成一个String的开销：String对象、UTF-16字符数组，以及JDK先尝试按Latin-1压缩时的临时数组
+        // （文字含中文，压缩失败），另留对象头和对齐的余量
+        long textBytes = 3L * renderer.getText().length();
+        assertTrue(perUpdate <= textBytes + 96, "update() allocated " + perUpdate + " bytes per tick");
+    }
+
+    // 测量测量本身的开销
+    private static long measure(com.sun.management.ThreadMXBean threads, Runnable body) {
+        long before = threads.getCurrentThreadAllocatedBytes();
+        if (body != null) {
+            body.run();
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static void runUnchanged(CountdownRenderer renderer) {
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (renderer.update(5_000 + i % 1000)) {
+                throw new AssertionError("显示的数值不应变化");
+            }
+        }
+    }
+
+    // 模拟逐秒刷新：每次调用剩余时间减少一秒
+    private static void runChanging(CountdownRenderer renderer) {
+        renderer.reset();
+        for (int i = 0; i < ITERATIONS; i++) {
+            if (!renderer.update((ITERATIONS - i) * 1000L)) {
+                throw new AssertionError("显示的数值应当变化");
+            }
+        }
+    }
+}
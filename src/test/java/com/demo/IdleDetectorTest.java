@@ -0,0 +1,95 @@
+package com.demo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdleDetectorTest {
+    private static final long THRESHOLD_MILLIS = 1500;
+
+    // 记录回调的监听器
+    private static class RecordingListener implements IdleDetector.Listener {
+        final CountDownLatch away = new CountDownLatch(1);
+        final CountDownLatch returned = new CountDownLatch(1);
+        final AtomicLong idleMillis = new AtomicLong(-1);
+        final AtomicLong awayMillis = new AtomicLong(-1);
+
+        @Override
+        public void onAway(long idleMillis) {
+            this.idleMillis.set(idleMillis);
+            away.countDown();
+        }
+
+        @Override
+        public void onReturn(long awayMillis) {
+            this.awayMillis.set(awayMillis);
+            returned.countDown();
+        }
+    }
+
+    @Test
+    void reportsAwayAndReturn() throws InterruptedException {
+        ScriptedActivitySource source = new ScriptedActivitySource(); // 从创建时刻起一直没有输入
+        IdleDetector detector = new IdleDetector(source, THRESHOLD_MILLIS);
+        RecordingListener listener = new RecordingListener();
+        detector.addListener(listener);
+        try {
+            assertTrue(listener.away.await(10, TimeUnit.SECONDS), "没有检测到离开");
+            assertTrue(detector.isAway());
+            assertTrue(listener.idleMillis.get() >= THRESHOLD_MILLIS);
+
+            source.touch();
+            assertTrue(listener.returned.await(10, TimeUnit.SECONDS), "没有检测到回来");
+            assertFalse(detector.isAway());
+            assertTrue(listener.awayMillis.get() >= THRESHOLD_MILLIS);
+        } finally {
+            detector.removeListener(listener);
+        }
+    }
+
+    @Test
+    void readFailureWhileAwayDeliversReturn() throws InterruptedException {
+        ScriptedActivitySource scripted = new ScriptedActivitySource();
+        boolean[] failing = {false};
+        ActivitySource source = new ActivitySource() {
+            @Override
+            public long getIdleMillis() {
+                synchronized (failing) {
+                    return failing[0] ? -1 : scripted.getIdleMillis();
+                }
+            }
+
+            @Override
+            public String getName() {
+                return "failing";
+            }
+        };
+        IdleDetector detector = new IdleDetector(source, THRESHOLD_MILLIS);
+        RecordingListener listener = new RecordingListener();
+        detector.addListener(listener);
+        try {
+            assertTrue(listener.away.await(10, TimeUnit.SECONDS), "没有检测到离开");
+            synchronized (failing) {
+                failing[0] = true;
+            }
+            // 读取失败后不能一直停在离开状态
+            assertTrue(listener.returned.await(10, TimeUnit.SECONDS), "读取失败后没有通知回来");
+            assertFalse(detector.isAway());
+
+            // 读取失败后仍按退避间隔继续读取
+            long polls = detector.getPollCount();
+            synchronized (failing) {
+                failing[0] = false;
+            }
+            Thread.sleep(2500);
+            assertTrue(detector.getPollCount() > polls, "读取失败后停止了检测");
+        } finally {
+            detector.removeListener(listener);
+        }
+    }
+}